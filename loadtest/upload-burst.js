@@ -0,0 +1,33 @@
+// Нагрузочный тест: много одновременных загрузок XML файла в /api/convert/file.
+// Запуск: k6 run -e XML_FILE=./sample.xml -e VUS=200 loadtest/upload-burst.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const baseUrl = __ENV.BASE_URL || 'http://localhost:8080';
+const vus = Number(__ENV.VUS || 200);
+const xml = open(__ENV.XML_FILE || './sample.xml', 'b');
+
+export const options = {
+    scenarios: {
+        uploads: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '15s', target: vus },
+                { duration: '60s', target: vus },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const response = http.post(`${baseUrl}/api/convert/file`, {
+        file: http.file(xml, 'sample.xml', 'application/xml'),
+        epic: 'JAICP',
+    });
+    check(response, {
+        'status is 200': (r) => r.status === 200,
+    });
+}
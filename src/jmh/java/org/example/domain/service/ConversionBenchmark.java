@@ -0,0 +1,129 @@
+package org.example.domain.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ConverterProperties;
+import org.example.domain.model.TestCase;
+import org.example.dto.ConversionMode;
+import org.example.dto.ConversionParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.env.StandardEnvironment;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки этапов конвертации XML файла целиком: разбор, построение моделей
+ * и полная конвертация в CSV в потоковом и DOM режимах.
+ * Размер документа задается количеством тест-кейсов, шагов и размером JSON тел.
+ * Полная конвертация измеряется без хранилища строк, повторная конвертация
+ * файла с одним измененным тест-кейсом — с хранилищем.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConversionBenchmark {
+
+    @Param({"100", "1000"})
+    private int testCases;
+
+    @Param({"5", "20"})
+    private int stepsPerCase;
+
+    @Param({"256", "4096"})
+    private int payloadBytes;
+
+    private byte[] xml;
+    private byte[] changedXml;
+    private Document document;
+    private ConversionWorkerPool workerPool;
+    private XmlParsingService xmlParsingService;
+    private XmlToCsvConverter converter;
+    private XmlToCsvConverter incrementalConverter;
+    private ConversionParams params;
+    private ConversionParams domParams;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        xml = JaicpXmlGenerator.generate(testCases, stepsPerCase, payloadBytes);
+        xmlParsingService = new XmlParsingService(new ConverterProperties());
+        workerPool = new ConversionWorkerPool(new ConverterProperties(), new StandardEnvironment());
+        converter = createConverter(false);
+        incrementalConverter = createConverter(true);
+        params = ConversionParams.builder().epic("JAICP").fileName("bench.xml").build();
+        domParams = params.toBuilder().mode(ConversionMode.DOM).build();
+        document = xmlParsingService.parseDocument(new ByteArrayInputStream(xml));
+
+        // Тот же файл, в котором изменен текст первого шага первого тест-кейса
+        String source = new String(xml, StandardCharsets.UTF_8);
+        int step = source.indexOf("<q>") + "<q>".length();
+        changedXml = (source.substring(0, step) + "изменено " + source.substring(step)).getBytes(StandardCharsets.UTF_8);
+        incrementalConverter.convert(new ByteArrayInputStream(xml), params, OutputStream.nullOutputStream());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workerPool.shutdown();
+    }
+
+    /**
+     * Разбор XML в DOM вместе с валидацией структуры.
+     */
+    @Benchmark
+    public Document parseXml() throws Exception {
+        return xmlParsingService.parseXml(new ByteArrayInputStream(xml));
+    }
+
+    /**
+     * Построение моделей тест-кейсов из готового DOM документа.
+     */
+    @Benchmark
+    public List<TestCase> parseListTestCases() {
+        return converter.parseListTestCases(document);
+    }
+
+    /**
+     * Полная потоковая конвертация в CSV, результат отбрасывается.
+     */
+    @Benchmark
+    public void convertStreaming() throws Exception {
+        converter.convert(new ByteArrayInputStream(xml), params, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Повторная потоковая конвертация файла, в котором изменился один тест-кейс.
+     * Строки остальных тест-кейсов берутся из хранилища строк.
+     */
+    @Benchmark
+    public void convertStreamingIncremental() throws Exception {
+        incrementalConverter.convert(new ByteArrayInputStream(changedXml), params, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Полная конвертация через DOM в CSV, результат отбрасывается.
+     */
+    @Benchmark
+    public void convertDom() throws Exception {
+        converter.convert(new ByteArrayInputStream(xml), domParams, OutputStream.nullOutputStream());
+    }
+
+    private XmlToCsvConverter createConverter(boolean rowStoreEnabled) {
+        ConverterProperties properties = new ConverterProperties();
+        properties.getRowStore().setEnabled(rowStoreEnabled);
+        return new XmlToCsvConverter(xmlParsingService, workerPool, CsvFormat.builder().build(),
+            new ConversionMetrics(new SimpleMeterRegistry()),
+            new TestCaseRowStore(properties, CsvFormat.builder().build()));
+    }
+}
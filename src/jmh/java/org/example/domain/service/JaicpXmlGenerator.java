@@ -0,0 +1,83 @@
+package org.example.domain.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Генератор синтетических XML файлов автотестов JAICP для бенчмарков.
+ * Каждый тест-кейс содержит мок с параметрами и JSON ответом, а шаги
+ * чередуются между текстом, ивентом и запросом с ожидаемыми результатами.
+ */
+public final class JaicpXmlGenerator {
+
+    private JaicpXmlGenerator() {
+    }
+
+    /**
+     * Генерирует XML документ в кодировке UTF-8.
+     *
+     * @param testCases количество тест-кейсов
+     * @param stepsPerCase количество шагов в каждом тест-кейсе
+     * @param payloadBytes примерный размер JSON тел моков и запросов в символах
+     * @return XML документ
+     */
+    public static byte[] generate(int testCases, int stepsPerCase, int payloadBytes) {
+        StringBuilder xml = new StringBuilder(testCases * (stepsPerCase * 160 + payloadBytes * 2 + 400));
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<test>\n");
+        for (int i = 0; i < testCases; i++) {
+            appendTestCase(xml, i, stepsPerCase, payloadBytes);
+        }
+        xml.append("</test>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Генерирует компактный JSON объект примерно заданного размера.
+     * Часть значений зависит от номера, поэтому разные номера дают разные тела.
+     *
+     * @param seed номер, от которого зависят значения
+     * @param size примерный размер в символах
+     * @return JSON объект в одну строку
+     */
+    public static String json(int seed, int size) {
+        StringBuilder json = new StringBuilder(size + 64);
+        json.append("{\"id\":").append(seed).append(",\"items\":[");
+        int item = 0;
+        while (json.length() < size) {
+            if (item > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"item-").append(item)
+                .append("\",\"value\":").append((seed * 31 + item) % 1000)
+                .append(",\"tags\":[\"a\",\"b\"],\"active\":").append(item % 2 == 0)
+                .append('}');
+            item++;
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendTestCase(StringBuilder xml, int index, int stepsPerCase, int payloadBytes) {
+        xml.append("  <test-case id=\"case-").append(index).append("\">\n")
+            .append("    <mockData>\n")
+            .append("      <query method=\"post\">https://api.example.org/${service}/items/${id}</query>\n")
+            .append("      <parameters>\n")
+            .append("        <service>catalog</service>\n")
+            .append("        <id>").append(index).append("</id>\n")
+            .append("        <lang>ru</lang>\n")
+            .append("      </parameters>\n")
+            .append("      <response status=\"200\">").append(json(index, payloadBytes)).append("</response>\n")
+            .append("    </mockData>\n");
+
+        for (int step = 0; step < stepsPerCase; step++) {
+            switch (step % 3) {
+                case 0 -> xml.append("    <q>Вопрос номер ").append(step).append(" в тесте ").append(index).append("</q>\n")
+                    .append("    <a state=\"/Start/Step").append(step).append("\">Ответ бота ").append(step).append("</a>\n");
+                case 1 -> xml.append("    <event>event").append(step).append("</event>\n")
+                    .append("    <a state=\"/Event/Step").append(step).append("\"/>\n");
+                default -> xml.append("    <request>").append(json(step, payloadBytes / 4)).append("</request>\n")
+                    .append("    <responseData field=\"replies\">").append(json(index + step, payloadBytes / 4))
+                    .append("</responseData>\n");
+            }
+        }
+        xml.append("  </test-case>\n");
+    }
+}
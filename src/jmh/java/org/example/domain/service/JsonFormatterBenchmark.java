@@ -0,0 +1,56 @@
+package org.example.domain.service;
+
+import org.example.config.ConverterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк форматирования JSON тел моков и запросов с кэшем и без него.
+ * Тела перебираются по кругу из набора заданного размера: небольшой набор
+ * моделирует повторяющиеся моки, при которых кэш дает попадания.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonFormatterBenchmark {
+
+    @Param({"256", "4096"})
+    private int payloadBytes;
+
+    @Param({"16"})
+    private int distinctPayloads;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private String[] payloads;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Кэш настраивается один раз на JVM, каждая комбинация параметров выполняется в своем форке
+        ConverterProperties properties = new ConverterProperties();
+        JsonFormatter.configure(cacheEnabled, properties.getJsonCache().getMaxSize().toBytes());
+
+        payloads = new String[distinctPayloads];
+        for (int i = 0; i < distinctPayloads; i++) {
+            payloads[i] = JaicpXmlGenerator.json(i, payloadBytes);
+        }
+    }
+
+    @Benchmark
+    public String formatJson() {
+        String payload = payloads[next];
+        next = (next + 1) % payloads.length;
+        return JsonFormatter.formatJson(payload);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.domain.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ConverterProperties;
+import org.example.domain.model.TestCase;
+import org.example.dto.ConversionParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки отрисовки готовых тест-кейсов: колонка сценария и строка CSV целиком.
+ * Модели строятся один раз, измеряется только форматирование и запись.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TestCaseRenderingBenchmark {
+
+    @Param({"5", "20"})
+    private int stepsPerCase;
+
+    @Param({"256", "4096"})
+    private int payloadBytes;
+
+    private List<TestCase> testCases;
+    private CsvWriter csv;
+    private MetadataColumns metadata;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        byte[] xml = JaicpXmlGenerator.generate(64, stepsPerCase, payloadBytes);
+        XmlParsingService xmlParsingService = new XmlParsingService(new ConverterProperties());
+        XmlToCsvConverter converter = new XmlToCsvConverter(xmlParsingService, null, CsvFormat.builder().build(),
+            new ConversionMetrics(new SimpleMeterRegistry()),
+            new TestCaseRowStore(new ConverterProperties(), CsvFormat.builder().build()));
+        testCases = converter.parseListTestCases(xmlParsingService.parseDocument(new ByteArrayInputStream(xml)));
+        csv = new CsvWriter(Writer.nullWriter(), CsvFormat.builder().build());
+        metadata = MetadataColumns.resolve(ConversionParams.builder().epic("JAICP").fileName("bench.xml").build(),
+            CsvFormat.builder().build());
+    }
+
+    /**
+     * Колонка сценария в виде строки.
+     */
+    @Benchmark
+    public String formatSteps() {
+        return nextTestCase().formatSteps();
+    }
+
+    /**
+     * Колонка сценария, записанная прямо в поле CSV.
+     */
+    @Benchmark
+    public void writeScenarioField() throws IOException {
+        TestCase testCase = nextTestCase();
+        csv.writeField(testCase::appendSteps);
+        csv.endRow();
+    }
+
+    /**
+     * Строка CSV тест-кейса целиком, включая предусловие с JSON моков.
+     */
+    @Benchmark
+    public void writeCsvRow() throws IOException {
+        nextTestCase().writeCsvRow(csv, metadata);
+    }
+
+    private TestCase nextTestCase() {
+        TestCase testCase = testCases.get(next);
+        next = (next + 1) % testCases.size();
+        return testCase;
+    }
+}
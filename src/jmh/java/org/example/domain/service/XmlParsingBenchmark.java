@@ -0,0 +1,51 @@
+package org.example.domain.service;
+
+import org.example.config.ConverterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.w3c.dom.Document;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк накладных расходов на разбор небольших XML файлов:
+ * парсер из пула {@link XmlParsingService} против новой фабрики на каждый разбор.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class XmlParsingBenchmark {
+
+    @Param({"1", "10"})
+    private int testCases;
+
+    private byte[] xml;
+    private XmlParsingService xmlParsingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        xml = JaicpXmlGenerator.generate(testCases, 3, 128);
+        xmlParsingService = new XmlParsingService(new ConverterProperties());
+    }
+
+    @Benchmark
+    public Document pooledBuilder() throws Exception {
+        return xmlParsingService.parseDocument(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public Document newFactoryPerParse() throws Exception {
+        return DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(new ByteArrayInputStream(xml));
+    }
+}
@@ -1,22 +1,55 @@
 package org.example;
 
+import org.example.cli.ConvertCommand;
+import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Arrays;
 
 /**
  * Главный класс приложения для конвертации XML в CSV.
  * Использует Spring Boot для запуска веб-приложения.
+ * С первым аргументом {@code convert} конвертирует локальные файлы без запуска веб-сервера.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class Application {
     
     /**
      * Точка входа в приложение.
-     * Запускает Spring Boot приложение с настроенными компонентами.
+     * Запускает Spring Boot приложение с настроенными компонентами
+     * или, если первый аргумент {@code convert}, выполняет команду {@link ConvertCommand}.
      *
      * @param args аргументы командной строки
      */
     public static void main(String[] args) {
+        if (args.length > 0 && ConvertCommand.NAME.equals(args[0])) {
+            System.exit(runCommand(Arrays.copyOfRange(args, 1, args.length)));
+        }
         SpringApplication.run(Application.class, args);
     }
-}
\ No newline at end of file
+
+    /**
+     * Запускает контекст без веб-сервера с профилем {@code convert} и выполняет команду конвертации.
+     *
+     * @param args аргументы после имени команды
+     * @return код завершения процесса
+     */
+    private static int runCommand(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .profiles(ConvertCommand.NAME)
+            .logStartupInfo(false)
+            .run(args);
+        int exitCode = context.getBean(ConvertCommand.class).run(args);
+        return SpringApplication.exit(context, () -> exitCode);
+    }
+}
@@ -0,0 +1,359 @@
+package org.example.cli;
+
+import org.example.domain.service.CompressedInputDecoder;
+import org.example.domain.service.MappedFileInputStream;
+import org.example.domain.service.XmlToCsvConverter;
+import org.example.dto.ConversionMode;
+import org.example.dto.ConversionParams;
+import org.example.dto.OutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Команда конвертации локальных файлов без запуска веб-сервера.
+ * Конвертирует XML файл или все XML файлы каталога вместе с подкаталогами.
+ * Файлы читаются через отображение в память, CSV пишется в файловый канал через буфер,
+ * несколько файлов конвертируются параллельно. По завершении печатается время каждого файла.
+ * Команда запускается с профилем {@code convert}, в котором логи не выводятся в консоль,
+ * поэтому в стандартный вывод попадает только итоговая таблица.
+ *
+ * <pre>
+ * java -jar converter.jar convert &lt;файл или каталог&gt; [--output=каталог] [--threads=N]
+ *     [--mode=STREAMING|DOM] [--format=CSV|NDJSON] [--parallel] [--epic=...] [--feature=...] ...
+ * </pre>
+ */
+@Component
+public class ConvertCommand {
+    /** Имя команды, первый аргумент командной строки */
+    public static final String NAME = "convert";
+
+    /** Код завершения при ошибке конвертации хотя бы одного файла */
+    public static final int EXIT_FAILED = 1;
+
+    /** Код завершения при неверных аргументах */
+    public static final int EXIT_USAGE = 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(ConvertCommand.class);
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    private final XmlToCsvConverter converter;
+    private final CompressedInputDecoder decoder;
+    private final PrintStream out = System.out;
+
+    /**
+     * Создает команду.
+     *
+     * @param converter конвертер XML в CSV
+     * @param decoder распаковщик файлов, сжатых gzip или zstd
+     */
+    public ConvertCommand(XmlToCsvConverter converter, CompressedInputDecoder decoder) {
+        this.converter = converter;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Выполняет команду.
+     *
+     * @param args аргументы после имени команды
+     * @return код завершения процесса
+     */
+    public int run(String[] args) {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        List<Path> inputs;
+        try {
+            inputs = findInputs(arguments.input());
+        } catch (IOException e) {
+            out.println("Не удалось прочитать " + arguments.input() + ": " + e.getMessage());
+            return EXIT_USAGE;
+        }
+        if (inputs.isEmpty()) {
+            out.println("XML файлы не найдены: " + arguments.input());
+            return EXIT_USAGE;
+        }
+
+        long start = System.nanoTime();
+        List<FileResult> results = convertAll(inputs, arguments);
+        printSummary(results, System.nanoTime() - start);
+        return results.stream().allMatch(FileResult::succeeded) ? 0 : EXIT_FAILED;
+    }
+
+    /**
+     * Конвертирует файлы в пуле потоков и возвращает результаты в порядке файлов.
+     */
+    private List<FileResult> convertAll(List<Path> inputs, Arguments arguments) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(arguments.threads(), inputs.size()), new CustomizableThreadFactory("cli-worker-"));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>();
+            for (Path input : inputs) {
+                Path output = outputFile(arguments, input);
+                futures.add(executor.submit(() -> convertFile(input, output, arguments)));
+            }
+            List<FileResult> results = new ArrayList<>();
+            for (Future<FileResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Конвертация прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка при конвертации: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Конвертирует один файл. Результат пишется во временный файл рядом с результатом
+     * и переименовывается после успешной конвертации, поэтому при ошибке неполный CSV не остается.
+     * Ошибка возвращается в результате и печатается в итоговой таблице, отдельно не логируется.
+     */
+    private FileResult convertFile(Path input, Path output, Arguments arguments) {
+        long start = System.nanoTime();
+        AtomicLong testCases = new AtomicLong();
+        Path temp = null;
+        try {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            temp = Files.createTempFile(output.toAbsolutePath().getParent(), ".convert-",
+                "." + arguments.format().getExtension() + ".tmp");
+            String fileName = CompressedInputDecoder.stripCompressionSuffix(input.getFileName().toString());
+            ConversionParams params = arguments.params(fileName);
+            try (InputStream mapped = new MappedFileInputStream(input);
+                 InputStream in = decoder.decodeDetected(mapped);
+                 FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 OutputStream csv = new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER_SIZE)) {
+                converter.convert(in, params, csv, testCases::set);
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new FileResult(input, Files.size(input), Files.size(output), testCases.get(),
+                System.nanoTime() - start, null);
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            return new FileResult(input, 0, 0, testCases.get(), System.nanoTime() - start, e);
+        }
+    }
+
+    /**
+     * Находит XML файлы: сам файл или все XML файлы каталога, включая сжатые gzip и zstd.
+     */
+    private static List<Path> findInputs(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            return Files.isRegularFile(input) ? List.of(input) : List.of();
+        }
+        try (Stream<Path> files = Files.walk(input)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(file -> CompressedInputDecoder.stripCompressionSuffix(file.getFileName().toString())
+                    .toLowerCase(Locale.ROOT).endsWith(".xml"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Возвращает путь CSV файла. Без каталога результата CSV кладется рядом с XML,
+     * иначе в каталог результата с сохранением относительного пути внутри входного каталога.
+     */
+    private static Path outputFile(Arguments arguments, Path input) {
+        String name = CompressedInputDecoder.stripCompressionSuffix(input.getFileName().toString());
+        int extIndex = name.lastIndexOf('.');
+        String csvName = (extIndex > 0 ? name.substring(0, extIndex) : name) + "." + arguments.format().getExtension();
+        if (arguments.output() == null) {
+            return input.resolveSibling(csvName);
+        }
+        Path relative = Files.isDirectory(arguments.input())
+            ? arguments.input().relativize(input).resolveSibling(csvName)
+            : Path.of(csvName);
+        return arguments.output().resolve(relative);
+    }
+
+    private void printSummary(List<FileResult> results, long totalNanos) {
+        out.printf(Locale.ROOT, "%-60s %12s %12s %10s %10s%n", "Файл", "XML, байт", "Вывод, байт", "Тест-кейсы", "Время, мс");
+        long failed = 0;
+        for (FileResult result : results) {
+            if (result.succeeded()) {
+                out.printf(Locale.ROOT, "%-60s %12d %12d %10d %10.1f%n", result.input(), result.inputBytes(),
+                    result.outputBytes(), result.testCases(), result.nanos() / 1_000_000.0);
+            } else {
+                failed++;
+                out.printf(Locale.ROOT, "%-60s ОШИБКА: %s%n", result.input(), result.error().getMessage());
+            }
+        }
+        out.printf(Locale.ROOT, "Файлов: %d, с ошибками: %d, общее время: %.1f мс%n",
+            results.size(), failed, totalNanos / 1_000_000.0);
+    }
+
+    private void printUsage() {
+        out.println("""
+            Использование: java -jar converter.jar convert <файл или каталог> [параметры]
+              --output=<каталог>         каталог для CSV, по умолчанию рядом с XML
+              --threads=<N>              сколько файлов конвертировать одновременно
+              --mode=STREAMING|DOM       режим конвертации
+              --format=CSV|NDJSON        формат результата, по умолчанию CSV
+              --parallel                 форматировать тест-кейсы файла параллельно
+              --epic, --feature, --story, --component, --tag, --link,
+              --parameter, --lead, --owner, --suite   метаданные тест-кейсов""");
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить временный файл {}", file, e);
+        }
+    }
+
+    /**
+     * Результат конвертации одного файла.
+     */
+    private record FileResult(Path input, long inputBytes, long outputBytes, long testCases,
+                              long nanos, Exception error) {
+        boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Разобранные аргументы команды. Параметры с точкой в имени, например
+     * {@code --converter.csv.delimiter=,}, относятся к настройкам Spring и пропускаются.
+     */
+    private record Arguments(Path input, Path output, int threads, ConversionMode mode, OutputFormat format,
+                             boolean parallel, Map<String, String> metadata) {
+        private static final Set<String> METADATA = Set.of(
+            "epic", "feature", "story", "component", "tag", "link", "parameter", "lead", "owner", "suite");
+
+        static Arguments parse(String[] args) {
+            Path input = null;
+            Path output = null;
+            int threads = Runtime.getRuntime().availableProcessors();
+            ConversionMode mode = ConversionMode.STREAMING;
+            OutputFormat format = OutputFormat.CSV;
+            boolean parallel = false;
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("epic", "JAICP");
+
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    if (input != null) {
+                        throw new IllegalArgumentException("Лишний аргумент: " + arg);
+                    }
+                    input = Path.of(arg);
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+                String value = eq < 0 ? null : arg.substring(eq + 1);
+                switch (name) {
+                    case "output" -> output = Path.of(required(name, value));
+                    case "threads" -> threads = positive(name, required(name, value));
+                    case "mode" -> mode = mode(required(name, value));
+                    case "format" -> format = format(required(name, value));
+                    case "parallel" -> parallel = value == null || Boolean.parseBoolean(value);
+                    default -> {
+                        if (METADATA.contains(name)) {
+                            metadata.put(name, required(name, value));
+                        } else if (!name.contains(".")) {
+                            throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+                        }
+                    }
+                }
+            }
+            if (input == null) {
+                throw new IllegalArgumentException("Не указан XML файл или каталог");
+            }
+            return new Arguments(input, output, threads, mode, format, parallel, metadata);
+        }
+
+        ConversionParams params(String fileName) {
+            return ConversionParams.builder()
+                .tag(metadata.get("tag"))
+                .link(metadata.get("link"))
+                .parameter(metadata.get("parameter"))
+                .lead(metadata.get("lead"))
+                .owner(metadata.get("owner"))
+                .suite(metadata.get("suite"))
+                .component(metadata.get("component"))
+                .story(metadata.get("story"))
+                .feature(metadata.get("feature"))
+                .epic(metadata.get("epic"))
+                .fileName(fileName)
+                .mode(mode)
+                .format(format)
+                .parallel(parallel)
+                .build();
+        }
+
+        private static String required(String name, String value) {
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException("Не задано значение параметра --" + name);
+            }
+            return value;
+        }
+
+        private static int positive(String name, String value) {
+            try {
+                int number = Integer.parseInt(value);
+                if (number > 0) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                // Сообщение ниже
+            }
+            throw new IllegalArgumentException("Параметр --" + name + " должен быть положительным числом");
+        }
+
+        private static ConversionMode mode(String value) {
+            try {
+                return ConversionMode.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Неизвестный режим конвертации: " + value);
+            }
+        }
+
+        private static OutputFormat format(String value) {
+            try {
+                return OutputFormat.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Неизвестный формат результата: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.domain.service.CsvFormat;
+import org.example.domain.service.JsonFormatter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Конфигурационный класс движка конвертации.
+ * Создает компоненты, параметры которых задаются в application.properties.
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class ConverterConfig {
+
+    /**
+     * Создает формат выходного CSV по настройкам приложения.
+     *
+     * @param properties настройки конвертера
+     * @return формат CSV
+     */
+    @Bean
+    public CsvFormat csvFormat(ConverterProperties properties) {
+        ConverterProperties.Csv csv = properties.getCsv();
+        return CsvFormat.builder()
+                .delimiter(csv.getDelimiter())
+                .quote(csv.getQuote())
+                .lineSeparator(csv.getLineSeparator())
+                .build();
+    }
+
+    /**
+     * Настраивает общий кэш форматирования JSON и подключает его метрики.
+     * Создается сразу и при ленивой инициализации контекста, чтобы кэш был
+     * настроен до первой конвертации.
+     *
+     * @param properties настройки конвертера
+     * @return подключение метрик форматирования JSON
+     */
+    @Bean
+    @Lazy(false)
+    public MeterBinder jsonFormatterMetrics(ConverterProperties properties) {
+        ConverterProperties.JsonCache jsonCache = properties.getJsonCache();
+        JsonFormatter.configure(jsonCache.isEnabled(), jsonCache.getMaxSize().toBytes());
+        return JsonFormatter::bindTo;
+    }
+}
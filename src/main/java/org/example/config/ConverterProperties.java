@@ -0,0 +1,227 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки движка конвертации.
+ * Значения задаются в application.properties с префиксом {@code converter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "converter")
+public class ConverterProperties {
+    /** Настройки параллельной конвертации тест-кейсов */
+    private Parallel parallel = new Parallel();
+
+    /** Настройки кэша отформатированного JSON */
+    private JsonCache jsonCache = new JsonCache();
+
+    /** Настройки формата CSV */
+    private Csv csv = new Csv();
+
+    /** Настройки пакетной конвертации */
+    private Batch batch = new Batch();
+
+    /** Настройки разбора XML */
+    private Xml xml = new Xml();
+
+    /** Настройки фоновых задач конвертации */
+    private Jobs jobs = new Jobs();
+
+    /** Настройки кэша готовых результатов конвертации */
+    private ResultCache resultCache = new ResultCache();
+
+    /** Настройки хранилища строк CSV отдельных тест-кейсов */
+    private RowStore rowStore = new RowStore();
+
+    /** Настройки приема сжатых данных */
+    private Compression compression = new Compression();
+
+    /** Настройки бюджета памяти одновременных конвертаций */
+    private Admission admission = new Admission();
+
+    /** Настройки временных файлов больших загрузок */
+    private Upload upload = new Upload();
+
+    /**
+     * Настройки пула потоков параллельной конвертации.
+     */
+    @Data
+    public static class Parallel {
+        /** Количество рабочих потоков */
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        /** Размер очереди задач пула, при переполнении задачу выполняет вызывающий поток */
+        private int queueCapacity = 1024;
+
+        /** Сколько тест-кейсов одной конвертации может обрабатываться одновременно на каждый поток */
+        private int inFlightPerWorker = 4;
+    }
+
+    /**
+     * Настройки кэша отформатированных JSON фрагментов.
+     */
+    @Data
+    public static class JsonCache {
+        /** Включено ли кэширование */
+        private boolean enabled = true;
+
+        /** Максимальный суммарный размер записей кэша */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+    }
+
+    /**
+     * Настройки формата выходного CSV.
+     */
+    @Data
+    public static class Csv {
+        /** Разделитель полей */
+        private char delimiter = ';';
+
+        /** Символ кавычек */
+        private char quote = '"';
+
+        /** Перевод строки, по умолчанию системный */
+        private String lineSeparator = System.lineSeparator();
+    }
+
+    /**
+     * Настройки пакетной конвертации нескольких файлов.
+     */
+    @Data
+    public static class Batch {
+        /** Сколько файлов конвертируется одновременно */
+        private int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /** Сколько готовых или обрабатываемых файлов одного пакета может ждать записи на каждый поток */
+        private int inFlightPerWorker = 2;
+
+        /** Максимальное число XML файлов во всех ZIP архивах одного пакета */
+        private int maxZipEntries = 1000;
+
+        /** Максимальный размер одного XML файла из архива после распаковки */
+        private DataSize maxZipEntrySize = DataSize.ofMegabytes(512);
+
+        /** Максимальный суммарный размер XML файлов из архивов одного пакета после распаковки */
+        private DataSize maxZipTotalSize = DataSize.ofGigabytes(2);
+    }
+
+    /**
+     * Настройки разбора XML через DOM.
+     */
+    @Data
+    public static class Xml {
+        /** Сколько свободных парсеров хранится в пуле для повторного использования */
+        private int parserPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Настройки фоновых задач конвертации.
+     */
+    @Data
+    public static class Jobs {
+        /** Сколько задач выполняется одновременно */
+        private int poolSize = 2;
+
+        /** Сколько задач может ждать в очереди, остальные отклоняются */
+        private int queueCapacity = 16;
+
+        /** Сколько хранится завершенная задача и ее результат */
+        private Duration ttl = Duration.ofHours(1);
+
+        /** Каталог для исходных файлов и результатов задач */
+        private Path storageDir = Path.of(System.getProperty("java.io.tmpdir"), "jaicp-converter-jobs");
+    }
+
+    /**
+     * Настройки кэша готовых CSV по содержимому запроса.
+     */
+    @Data
+    public static class ResultCache {
+        /** Включено ли кэширование */
+        private boolean enabled = true;
+
+        /** Максимальный суммарный размер результатов в памяти */
+        private DataSize maxSize = DataSize.ofMegabytes(128);
+
+        /** Результаты больше этого размера в памяти не хранятся */
+        private DataSize maxEntrySize = DataSize.ofMegabytes(16);
+
+        /** Каталог для результатов на диске, если не задан, диск не используется */
+        private Path diskDir;
+
+        /** Максимальный суммарный размер результатов на диске */
+        private DataSize diskMaxSize = DataSize.ofGigabytes(1);
+    }
+
+    /**
+     * Настройки хранилища строк CSV отдельных тест-кейсов.
+     */
+    @Data
+    public static class RowStore {
+        /** Переиспользуются ли строки неизмененных тест-кейсов */
+        private boolean enabled = true;
+
+        /** Максимальный суммарный размер строк в памяти */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+    }
+
+    /**
+     * Настройки приема сжатых XML данных.
+     */
+    @Data
+    public static class Compression {
+        /** Максимальный размер XML после распаковки gzip или zstd */
+        private DataSize maxDecompressedSize = DataSize.ofGigabytes(2);
+    }
+
+    /**
+     * Настройки допуска конвертаций по бюджету памяти.
+     * Память конвертации оценивается как размер входа, умноженный на коэффициент режима.
+     */
+    @Data
+    public static class Admission {
+        /** Ограничивается ли число одновременных конвертаций бюджетом памяти */
+        private boolean enabled = true;
+
+        /** Суммарная оценка памяти, которую могут занимать выполняющиеся конвертации */
+        private DataSize memoryBudget = DataSize.ofBytes(Runtime.getRuntime().maxMemory() / 2);
+
+        /** Во сколько раз память конвертации через DOM превышает размер XML */
+        private int domExpansion = 10;
+
+        /** Во сколько раз память потоковой конвертации превышает размер XML */
+        private int streamingExpansion = 2;
+
+        /** Минимальная оценка памяти одной конвертации */
+        private DataSize minReservation = DataSize.ofMegabytes(1);
+
+        /** Сколько запрос ждет освобождения памяти, прежде чем получить 429 */
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        /** Значение заголовка Retry-After в ответе 429 */
+        private Duration retryAfter = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Настройки переноса больших загрузок на диск.
+     */
+    @Data
+    public static class Upload {
+        /** Загрузки больше этого размера конвертируются из временного файла, результат также пишется в файл */
+        private DataSize spoolThreshold = DataSize.ofMegabytes(16);
+
+        /** Каталог временных файлов загрузок и результатов */
+        private Path spoolDir = Path.of(System.getProperty("java.io.tmpdir"), "jaicp-converter-uploads");
+
+        /** Максимальный размер одного загружаемого файла, передается в spring.servlet.multipart.max-file-size */
+        private DataSize maxFileSize = DataSize.ofGigabytes(2);
+
+        /** Максимальный размер multipart запроса целиком, передается в spring.servlet.multipart.max-request-size */
+        private DataSize maxRequestSize = DataSize.ofGigabytes(2);
+    }
+}
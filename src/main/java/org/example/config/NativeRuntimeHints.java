@@ -0,0 +1,31 @@
+package org.example.config;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import org.example.domain.service.ConversionJobStatus;
+import org.example.dto.request.ConversionRequest;
+import org.example.dto.response.ConversionJobResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Подсказки для сборки GraalVM native image ({@code ./gradlew nativeCompile -Pnative}).
+ * Регистрирует рефлексию для моделей, которые Jackson читает и пишет в запросах
+ * (Lombok генерирует обычные методы при компиляции и рефлексии не требует),
+ * и нативную библиотеку zstd-jni, которую она загружает из ресурсов jar.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            ConversionRequest.class, ConversionJobResponse.class, ConversionJobStatus.class);
+
+        // zstd-jni распаковывает библиотеку из ресурсов и обращается к полям потока из нативного кода
+        hints.resources().registerPattern("linux/*/libzstd-jni*");
+        hints.resources().registerPattern("darwin/*/libzstd-jni*");
+        hints.resources().registerPattern("win/*/libzstd-jni*");
+        hints.jni().registerType(ZstdInputStreamNoFinalizer.class, MemberCategory.DECLARED_FIELDS);
+    }
+}
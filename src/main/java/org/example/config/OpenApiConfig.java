@@ -2,14 +2,18 @@ package org.example.config;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Конфигурационный класс для настройки OpenAPI документации.
  * Предоставляет конфигурацию Swagger UI для визуализации REST API.
+ * Не создается, если документация выключена ({@code springdoc.api-docs.enabled=false}),
+ * например в профиле fast-start.
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
 
     /**
@@ -26,4 +30,4 @@ public class OpenApiConfig {
                         .version("1.0")
                         .description("API для конвертации XML файлов в CSV"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package org.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.domain.service.CompressedInputDecoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Фильтр, распаковывающий тело запроса со сжатием gzip или zstd по заголовку {@code Content-Encoding}.
+ * Тело распаковывается потоково при чтении, заголовки сжатия скрываются от дальнейшей обработки.
+ * Multipart запросы целиком распаковать нельзя, так как части разбирает контейнер сервлетов,
+ * для них сжимается сам файл, а сервис распознает его по сигнатуре.
+ */
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    private final CompressedInputDecoder decoder;
+
+    /**
+     * Создает фильтр.
+     *
+     * @param decoder распаковщик сжатых данных
+     */
+    public RequestDecompressionFilter(CompressedInputDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return contentEncoding == null || contentEncoding.isBlank();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (!decoder.supports(contentEncoding)) {
+            reject(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Неподдерживаемая кодировка содержимого: " + contentEncoding + ", поддерживаются gzip и zstd");
+            return;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            reject(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Сжатие multipart запроса целиком не поддерживается, сожмите сам XML файл (gzip или zstd)");
+            return;
+        }
+
+        InputStream decoded;
+        try {
+            decoded = decoder.decode(request.getInputStream(), contentEncoding);
+        } catch (IOException e) {
+            reject(response, HttpStatus.BAD_REQUEST, "Не удалось распаковать тело запроса: " + e.getMessage());
+            return;
+        }
+        filterChain.doFilter(new DecodedRequest(request, decoded), response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+
+    /**
+     * Запрос с распакованным телом и без заголовков сжатия.
+     */
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+        private static final List<String> HIDDEN_HEADERS = List.of(HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
+        private final DecodedInputStream inputStream;
+
+        private DecodedRequest(HttpServletRequest request, InputStream decoded) {
+            super(request);
+            this.inputStream = new DecodedInputStream(decoded);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(DecodedRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isHidden(String name) {
+            return HIDDEN_HEADERS.stream().anyMatch(hidden -> hidden.equalsIgnoreCase(name));
+        }
+    }
+
+    /**
+     * Блокирующий поток распакованного тела запроса.
+     */
+    private static final class DecodedInputStream extends ServletInputStream {
+        private final InputStream decoded;
+        private boolean finished;
+
+        private DecodedInputStream(InputStream decoded) {
+            this.decoded = decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = decoded.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = decoded.read(b, off, len);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Неблокирующее чтение сжатого тела запроса не поддерживается");
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoded.close();
+        }
+    }
+}
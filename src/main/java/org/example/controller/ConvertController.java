@@ -7,30 +7,64 @@ import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.example.domain.service.BatchConversionService;
+import org.example.domain.service.BatchConversionService.BatchEntry;
+import org.example.domain.service.CompressedInputDecoder;
+import org.example.domain.service.ConversionJob;
+import org.example.domain.service.ConversionJobService;
+import org.example.domain.service.MemoryBudget;
+import org.example.domain.service.ResultCache;
+import org.example.domain.service.UploadSpool;
 import org.example.domain.service.XmlToCsvConverter;
+import org.example.dto.ConversionMode;
 import org.example.dto.ConversionParams;
+import org.example.dto.OutputFormat;
 import org.example.dto.request.ConversionRequest;
+import org.example.dto.response.ConversionJobResponse;
 import org.example.exception.ConversionException;
 
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 /**
  * REST контроллер для конвертации XML файлов в CSV формат.
- * Предоставляет два основных эндпоинта:
+ * Предоставляет эндпоинты:
  * <ul>
  *     <li>/api/convert/file - для конвертации XML файла</li>
  *     <li>/api/convert/xml - для конвертации XML строки</li>
+ *     <li>/api/convert/batch - для пакетной конвертации нескольких XML файлов или ZIP архива</li>
+ *     <li>/api/convert/jobs - для фоновой конвертации больших файлов с опросом состояния</li>
  * </ul>
+ * Файлы, сжатые gzip или zstd, распознаются по сигнатуре и распаковываются потоково.
+ * Синхронные конвертации допускаются по бюджету памяти {@link MemoryBudget}: при его
+ * нехватке запрос ждет, а затем получает 429 с заголовком Retry-After.
+ * Большие загрузки конвертируются из временного файла {@link UploadSpool}.
  */
 @RestController
 @RequestMapping("/api/convert")
@@ -40,11 +74,19 @@ import java.nio.charset.StandardCharsets;
 @Slf4j
 public class ConvertController {
     private final XmlToCsvConverter converter;
+    private final BatchConversionService batchConversionService;
+    private final ConversionJobService conversionJobService;
+    private final ResultCache resultCache;
+    private final CompressedInputDecoder decoder;
+    private final MemoryBudget memoryBudget;
+    private final UploadSpool uploadSpool;
 
     /**
      * Конвертирует XML файл в CSV формат.
+     * Файл больше {@code converter.upload.spool-threshold} переносится во временный файл
+     * и читается через отображение в память, результат пишется в файл и передается клиенту целиком.
      *
-     * @param file XML файл для конвертации
+     * @param file XML файл для конвертации, возможно сжатый gzip или zstd
      * @param tag дополнительный тег для маркировки теста
      * @param link ссылка на связанный ресурс
      * @param parameter дополнительный параметр
@@ -55,7 +97,11 @@ public class ConvertController {
      * @param story пользовательская история
      * @param feature функциональность
      * @param epic эпик, к которому относится тест
-     * @return ResponseEntity с CSV файлом
+     * @param mode режим конвертации: потоковый или через DOM
+     * @param format формат результата: CSV или NDJSON
+     * @param parallel обрабатывать тест-кейсы параллельно
+     * @param ifNoneMatch ETag ранее полученного результата
+     * @return ResponseEntity с потоком CSV файла или 304, если результат не изменился
      * @throws ConversionException если произошла ошибка при конвертации
      */
     @Operation(
@@ -63,7 +109,7 @@ public class ConvertController {
         description = "Принимает XML файл и возвращает CSV файл"
     )
     @PostMapping(value = "/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Resource> convertFile(
+    public ResponseEntity<StreamingResponseBody> convertFile(
         @Parameter(description = "XML файл") @RequestPart("file") MultipartFile file,
         @Parameter(description = "Тег") @RequestParam(required = false) String tag,
         @Parameter(description = "Ссылка") @RequestParam(required = false) String link,
@@ -74,24 +120,36 @@ public class ConvertController {
         @Parameter(description = "Компонент") @RequestParam(required = false) String component,
         @Parameter(description = "История") @RequestParam(required = false) String story,
         @Parameter(description = "Функциональность") @RequestParam(required = false) String feature,
-        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic
+        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic,
+        @Parameter(description = "Режим конвертации") @RequestParam(required = false, defaultValue = "STREAMING") ConversionMode mode,
+        @Parameter(description = "Формат результата: CSV или NDJSON") @RequestParam(required = false, defaultValue = "CSV") OutputFormat format,
+        @Parameter(description = "Параллельная обработка тест-кейсов") @RequestParam(required = false, defaultValue = "false") boolean parallel,
+        @Parameter(description = "ETag ранее полученного результата") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        try {
-            String xmlContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-            String originalFileName = file.getOriginalFilename();
+        String originalFileName = CompressedInputDecoder.stripCompressionSuffix(file.getOriginalFilename());
+        ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, originalFileName, mode, format, parallel);
+        String outputFileName = generateOutputFileName(originalFileName, format);
 
-            ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, originalFileName);
-            byte[] csvContent = converter.convert(xmlContent, params);
-            
-            return createCsvResponse(csvContent, generateOutputFileName(originalFileName));
-        } catch (Exception e) {
-            log.error("Ошибка при конвертации XML файла", e);
-            throw new ConversionException("Ошибка при конвертации файла: " + e.getMessage());
+        if (!uploadSpool.shouldSpool(file.getSize())) {
+            return cachedCsv(decoder.detecting(file), file.getSize(), null, params, outputFileName, ifNoneMatch,
+                "Ошибка при конвертации XML файла", "Ошибка при конвертации файла: ");
+        }
+        UploadSpool.SpooledFile upload = spoolUpload(file);
+        try {
+            // Временный файл удаляется по завершении запроса, даже если тело ответа не выполнится
+            closeOnAsyncCompletion("upload", upload);
+            return cachedCsv(decoder.detecting(upload), file.getSize(), upload, params, outputFileName, ifNoneMatch,
+                "Ошибка при конвертации XML файла", "Ошибка при конвертации файла: ");
+        } catch (RuntimeException e) {
+            upload.close();
+            throw e;
         }
     }
 
     /**
      * Конвертирует XML строку в CSV формат.
+     * Тело запроса может быть сжато gzip или zstd с заголовком {@code Content-Encoding},
+     * его распаковывает {@link org.example.config.RequestDecompressionFilter}.
      *
      * @param xmlRequest объект с XML строкой
      * @param tag дополнительный тег для маркировки теста
@@ -104,7 +162,11 @@ public class ConvertController {
      * @param story пользовательская история
      * @param feature функциональность
      * @param epic эпик, к которому относится тест
-     * @return ResponseEntity с CSV файлом
+     * @param mode режим конвертации: потоковый или через DOM
+     * @param format формат результата: CSV или NDJSON
+     * @param parallel обрабатывать тест-кейсы параллельно
+     * @param ifNoneMatch ETag ранее полученного результата
+     * @return ResponseEntity с потоком CSV файла или 304, если результат не изменился
      * @throws ConversionException если произошла ошибка при конвертации
      */
     @Operation(
@@ -112,7 +174,7 @@ public class ConvertController {
         description = "Принимает XML в теле запроса и возвращает CSV файл"
     )
     @PostMapping(value = "/xml", consumes = MediaType.APPLICATION_XML_VALUE)
-    public ResponseEntity<Resource> convertXml(
+    public ResponseEntity<StreamingResponseBody> convertXml(
         @Parameter(description = "XML в теле запроса") @RequestBody ConversionRequest xmlRequest,
         @Parameter(description = "Тег") @RequestParam(required = false) String tag,
         @Parameter(description = "Ссылка") @RequestParam(required = false) String link,
@@ -123,17 +185,211 @@ public class ConvertController {
         @Parameter(description = "Компонент") @RequestParam(required = false) String component,
         @Parameter(description = "История") @RequestParam(required = false) String story,
         @Parameter(description = "Функциональность") @RequestParam(required = false) String feature,
-        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic
+        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic,
+        @Parameter(description = "Режим конвертации") @RequestParam(required = false, defaultValue = "STREAMING") ConversionMode mode,
+        @Parameter(description = "Формат результата: CSV или NDJSON") @RequestParam(required = false, defaultValue = "CSV") OutputFormat format,
+        @Parameter(description = "Параллельная обработка тест-кейсов") @RequestParam(required = false, defaultValue = "false") boolean parallel,
+        @Parameter(description = "ETag ранее полученного результата") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, null, mode, format, parallel);
+        ByteArrayResource xmlContent = new ByteArrayResource(xmlRequest.getXmlContent().getBytes(StandardCharsets.UTF_8));
+
+        return cachedCsv(xmlContent, xmlContent.contentLength(), null, params, generateOutputFileName(null, format), ifNoneMatch,
+            "Ошибка при конвертации XML", "Ошибка при конвертации: ");
+    }
+
+    /**
+     * Конвертирует несколько XML файлов за один запрос.
+     * Принимает XML файлы и ZIP архивы с XML файлами. Файлы конвертируются параллельно,
+     * результат передается потоком: ZIP архив с CSV на каждый файл или, при
+     * {@code merge=true}, один CSV со строками всех файлов.
+     *
+     * @param files XML файлы или ZIP архивы, возможно сжатые gzip или zstd
+     * @param tag дополнительный тег для маркировки теста
+     * @param link ссылка на связанный ресурс
+     * @param parameter дополнительный параметр
+     * @param lead ответственный за тест
+     * @param owner владелец теста
+     * @param suite набор тестов
+     * @param component компонент, к которому относится тест
+     * @param story пользовательская история
+     * @param feature функциональность
+     * @param epic эпик, к которому относится тест
+     * @param mode режим конвертации: потоковый или через DOM
+     * @param format формат результата: CSV или NDJSON
+     * @param parallel обрабатывать тест-кейсы каждого файла параллельно
+     * @param merge объединить результат в один CSV файл
+     * @return ResponseEntity с потоком ZIP архива или CSV файла
+     * @throws ConversionException если произошла ошибка при конвертации
+     */
+    @Operation(
+        summary = "Пакетно конвертирует XML файлы в CSV",
+        description = "Принимает несколько XML файлов или ZIP архив и возвращает ZIP архив с CSV файлами или один объединенный CSV"
+    )
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> convertBatch(
+        @Parameter(description = "XML файлы или ZIP архивы") @RequestPart("files") List<MultipartFile> files,
+        @Parameter(description = "Тег") @RequestParam(required = false) String tag,
+        @Parameter(description = "Ссылка") @RequestParam(required = false) String link,
+        @Parameter(description = "Параметр") @RequestParam(required = false) String parameter,
+        @Parameter(description = "Ответственный") @RequestParam(required = false) String lead,
+        @Parameter(description = "Владелец") @RequestParam(required = false) String owner,
+        @Parameter(description = "Набор тестов") @RequestParam(required = false) String suite,
+        @Parameter(description = "Компонент") @RequestParam(required = false) String component,
+        @Parameter(description = "История") @RequestParam(required = false) String story,
+        @Parameter(description = "Функциональность") @RequestParam(required = false) String feature,
+        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic,
+        @Parameter(description = "Режим конвертации") @RequestParam(required = false, defaultValue = "STREAMING") ConversionMode mode,
+        @Parameter(description = "Формат результата: CSV или NDJSON") @RequestParam(required = false, defaultValue = "CSV") OutputFormat format,
+        @Parameter(description = "Параллельная обработка тест-кейсов") @RequestParam(required = false, defaultValue = "false") boolean parallel,
+        @Parameter(description = "Объединить результат в один CSV") @RequestParam(required = false, defaultValue = "false") boolean merge
+    ) {
+        ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, null, mode, format, parallel);
+        List<BatchEntry> uploads = files.stream()
+            .map(file -> new BatchEntry(
+                CompressedInputDecoder.stripCompressionSuffix(file.getOriginalFilename()), decoder.detecting(file)))
+            .toList();
+        long totalSize = files.stream().mapToLong(MultipartFile::getSize).sum();
+        MemoryBudget.Reservation reservation = reserve(totalSize, params);
+
+        StreamingResponseBody body = outputStream -> {
+            try (reservation) {
+                if (merge) {
+                    batchConversionService.convertMerged(uploads, params, outputStream);
+                } else {
+                    batchConversionService.convertToZip(uploads, params, name -> generateOutputFileName(name, format), outputStream);
+                }
+            } catch (Exception e) {
+                log.error("Ошибка при пакетной конвертации XML файлов", e);
+                throw new ConversionException("Ошибка при пакетной конвертации: " + e.getMessage());
+            }
+        };
+        try {
+            if (merge) {
+                return createCsvResponse(body, generateOutputFileName(null, format), format);
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                            .filename("conversion-result.zip", StandardCharsets.UTF_8)
+                            .build().toString())
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .body(body);
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ставит конвертацию XML файла в очередь фоновых задач.
+     * Файл сохраняется на диск, ответ с идентификатором задачи возвращается сразу,
+     * не дожидаясь конвертации.
+     *
+     * @param file XML файл для конвертации, возможно сжатый gzip или zstd
+     * @param tag дополнительный тег для маркировки теста
+     * @param link ссылка на связанный ресурс
+     * @param parameter дополнительный параметр
+     * @param lead ответственный за тест
+     * @param owner владелец теста
+     * @param suite набор тестов
+     * @param component компонент, к которому относится тест
+     * @param story пользовательская история
+     * @param feature функциональность
+     * @param epic эпик, к которому относится тест
+     * @param mode режим конвертации: потоковый или через DOM
+     * @param format формат результата: CSV или NDJSON
+     * @param parallel обрабатывать тест-кейсы параллельно
+     * @return ResponseEntity со статусом 202 и состоянием задачи
+     * @throws ConversionException если файл не удалось сохранить
+     */
+    @Operation(
+        summary = "Создает задачу фоновой конвертации",
+        description = "Принимает XML файл и сразу возвращает идентификатор задачи. Состояние задачи доступно по /api/convert/jobs/{id}"
+    )
+    @PostMapping(value = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ConversionJobResponse> createJob(
+        @Parameter(description = "XML файл") @RequestPart("file") MultipartFile file,
+        @Parameter(description = "Тег") @RequestParam(required = false) String tag,
+        @Parameter(description = "Ссылка") @RequestParam(required = false) String link,
+        @Parameter(description = "Параметр") @RequestParam(required = false) String parameter,
+        @Parameter(description = "Ответственный") @RequestParam(required = false) String lead,
+        @Parameter(description = "Владелец") @RequestParam(required = false) String owner,
+        @Parameter(description = "Набор тестов") @RequestParam(required = false) String suite,
+        @Parameter(description = "Компонент") @RequestParam(required = false) String component,
+        @Parameter(description = "История") @RequestParam(required = false) String story,
+        @Parameter(description = "Функциональность") @RequestParam(required = false) String feature,
+        @Parameter(description = "Эпик") @RequestParam(required = false, defaultValue = "JAICP") String epic,
+        @Parameter(description = "Режим конвертации") @RequestParam(required = false, defaultValue = "STREAMING") ConversionMode mode,
+        @Parameter(description = "Формат результата: CSV или NDJSON") @RequestParam(required = false, defaultValue = "CSV") OutputFormat format,
+        @Parameter(description = "Параллельная обработка тест-кейсов") @RequestParam(required = false, defaultValue = "false") boolean parallel
     ) {
+        String originalFileName = CompressedInputDecoder.stripCompressionSuffix(file.getOriginalFilename());
+        ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, originalFileName, mode, format, parallel);
+
+        ConversionJob job;
         try {
-            ConversionParams params = buildParams(tag, link, parameter, lead, owner, suite, component, story, feature, epic, null);
-            byte[] csvContent = converter.convert(xmlRequest.getXmlContent(), params);
-            
-            return createCsvResponse(csvContent, "conversion-result.csv");
-        } catch (Exception e) {
-            log.error("Ошибка при конвертации XML", e);
-            throw new ConversionException("Ошибка при конвертации: " + e.getMessage());
+            job = conversionJobService.submit(decoder.detecting(file), originalFileName, generateOutputFileName(originalFileName, format), params);
+        } catch (IOException e) {
+            log.error("Ошибка при сохранении файла задачи конвертации", e);
+            throw new ConversionException("Ошибка при сохранении файла: " + e.getMessage(), e);
         }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/convert/jobs/" + job.getId()))
+                .body(ConversionJobResponse.from(job));
+    }
+
+    /**
+     * Возвращает состояние задачи фоновой конвертации.
+     *
+     * @param id идентификатор задачи
+     * @return состояние задачи и число обработанных тест-кейсов
+     */
+    @Operation(
+        summary = "Возвращает состояние задачи конвертации",
+        description = "Состояние задачи и число обработанных тест-кейсов"
+    )
+    @GetMapping("/jobs/{id}")
+    public ConversionJobResponse getJob(@Parameter(description = "Идентификатор задачи") @PathVariable String id) {
+        return ConversionJobResponse.from(conversionJobService.getJob(id));
+    }
+
+    /**
+     * Возвращает CSV файл завершенной задачи конвертации.
+     *
+     * @param id идентификатор задачи
+     * @return ResponseEntity с CSV файлом
+     */
+    @Operation(
+        summary = "Скачивает результат задачи конвертации",
+        description = "Возвращает CSV файл успешно завершенной задачи"
+    )
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<FileSystemResource> getJobResult(@Parameter(description = "Идентификатор задачи") @PathVariable String id) {
+        ConversionJob job = conversionJobService.getCompletedJob(id);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment()
+                        .filename(job.getOutputFileName(), StandardCharsets.UTF_8)
+                        .build().toString())
+                .contentType(MediaType.parseMediaType(job.getFormat().getMediaType()))
+                .body(new FileSystemResource(job.getResultFile()));
+    }
+
+    /**
+     * Отменяет задачу конвертации и удаляет ее файлы.
+     *
+     * @param id идентификатор задачи
+     * @return пустой ответ со статусом 204
+     */
+    @Operation(
+        summary = "Удаляет задачу конвертации",
+        description = "Отменяет выполняющуюся задачу и удаляет ее файлы"
+    )
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<Void> deleteJob(@Parameter(description = "Идентификатор задачи") @PathVariable String id) {
+        conversionJobService.delete(id);
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -150,11 +406,15 @@ public class ConvertController {
      * @param feature функциональность
      * @param epic эпик
      * @param fileName имя файла
+     * @param mode режим конвертации
+     * @param format формат результата
+     * @param parallel параллельная обработка тест-кейсов
      * @return объект с параметрами конвертации
      */
     private ConversionParams buildParams(String tag, String link, String parameter, 
                                       String lead, String owner, String suite, String component, 
-                                      String story, String feature, String epic, String fileName) {
+                                      String story, String feature, String epic, String fileName,
+                                      ConversionMode mode, OutputFormat format, boolean parallel) {
         return ConversionParams.builder()
                 .tag(tag)
                 .link(link)
@@ -167,18 +427,22 @@ public class ConvertController {
                 .feature(feature)
                 .epic(epic)
                 .fileName(fileName)
+                .mode(mode)
+                .format(format)
+                .parallel(parallel)
                 .build();
     }
 
     /**
-     * Генерирует имя выходного CSV файла на основе имени входного файла.
+     * Генерирует имя выходного файла на основе имени входного файла и формата результата.
      *
      * @param originalFileName оригинальное имя файла
+     * @param format формат результата
      * @return имя выходного файла
      */
-    private String generateOutputFileName(String originalFileName) {
+    private String generateOutputFileName(String originalFileName, OutputFormat format) {
         if (originalFileName == null || originalFileName.isEmpty()) {
-            return "conversion-result.csv";
+            return "conversion-result." + format.getExtension();
         }
         
         String baseName = originalFileName;
@@ -187,26 +451,312 @@ public class ConvertController {
             baseName = originalFileName.substring(0, extIndex);
         }
         
-        return baseName + ".csv";
+        return baseName + "." + format.getExtension();
+    }
+
+    /**
+     * Возвращает CSV из кэша результатов или конвертирует XML, сохраняя результат в кэш.
+     * Ключ кэша вычисляется по содержимому XML и параметрам и отдается клиенту как ETag.
+     * Если клиент передал тот же ETag в If-None-Match, возвращается 304 без тела.
+     *
+     * Память под конвертацию резервируется только если результата нет в кэше.
+     * Резерв и открытый файл кэша освобождаются, даже если тело ответа не выполнится.
+     * Если XML перенесен во временный файл, результат также пишется в файл, а оба файла
+     * удаляются после ответа.
+     *
+     * @param source источник XML данных
+     * @param inputSize размер XML данных в байтах
+     * @param upload временный файл с XML или null, если XML не переносился на диск
+     * @param params параметры конвертации
+     * @param filename имя CSV файла
+     * @param ifNoneMatch значение заголовка If-None-Match
+     * @param logMessage сообщение для лога при ошибке
+     * @param errorPrefix префикс сообщения об ошибке для клиента
+     * @return ответ с CSV файлом или 304
+     */
+    private ResponseEntity<StreamingResponseBody> cachedCsv(InputStreamSource source, long inputSize,
+                                                            UploadSpool.SpooledFile upload, ConversionParams params,
+                                                            String filename, String ifNoneMatch,
+                                                            String logMessage, String errorPrefix) {
+        MediaType mediaType = MediaType.parseMediaType(params.getFormat().getMediaType());
+        if (!resultCache.isEnabled()) {
+            MemoryBudget.Reservation reservation = reserve(inputSize, params);
+            try {
+                StreamingResponseBody body = upload != null
+                    ? spilledCsv(source, upload, params, null, reservation, logMessage, errorPrefix)
+                    : streamCsv(source, params, reservation, logMessage, errorPrefix);
+                return createCsvResponse(body, filename, params.getFormat());
+            } catch (RuntimeException e) {
+                reservation.close();
+                throw e;
+            }
+        }
+
+        String key;
+        try {
+            key = resultCache.key(source, params);
+        } catch (IOException e) {
+            log.error(logMessage, e);
+            throw new ConversionException(errorPrefix + e.getMessage(), e);
+        }
+        String etag = "\"" + key + "\"";
+        if (matchesEtag(ifNoneMatch, etag)) {
+            closeUpload(upload);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        Optional<Resource> cached = resultCache.get(key);
+        if (cached.isPresent()) {
+            closeUpload(upload);
+            Resource resource = cached.get();
+            if (resource instanceof Closeable file) {
+                // Файл с диска открыт при поиске и закрывается вместе с потоком или по завершении запроса
+                closeOnAsyncCompletion("cached-result", file);
+            }
+            StreamingResponseBody body = outputStream -> {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    inputStream.transferTo(outputStream);
+                }
+            };
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                            .filename(filename, StandardCharsets.UTF_8)
+                            .build().toString())
+                    .eTag(etag)
+                    .contentLength(contentLength(resource))
+                    .contentType(mediaType)
+                    .body(body);
+        }
+
+        MemoryBudget.Reservation reservation = reserve(inputSize, params);
+        try {
+            StreamingResponseBody body;
+            if (upload != null) {
+                body = spilledCsv(source, upload, params, key, reservation, logMessage, errorPrefix);
+            } else {
+                body = outputStream -> {
+                    ResultCache.Capture capture = resultCache.capture(key, params.getFormat(), outputStream);
+                    try (reservation; InputStream inputStream = source.getInputStream()) {
+                        converter.convert(inputStream, params, capture);
+                        capture.commit();
+                    } catch (Exception e) {
+                        capture.abandon();
+                        log.error(logMessage, e);
+                        throw new ConversionException(errorPrefix + e.getMessage());
+                    }
+                };
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment()
+                            .filename(filename, StandardCharsets.UTF_8)
+                            .build().toString())
+                    .eTag(etag)
+                    .contentType(mediaType)
+                    .body(body);
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Резервирует память для конвертации. Резерв закрывает тело ответа после конвертации,
+     * а если тело не выполнится (таймаут запроса, отказ пула асинхронных задач, разрыв
+     * соединения до начала записи), резерв освобождается по завершении запроса.
+     * Повторное закрытие резерва ничего не делает, поэтому память возвращается ровно один раз.
+     *
+     * @param inputSize размер XML данных в байтах
+     * @param params параметры конвертации
+     * @return резерв памяти
+     */
+    private MemoryBudget.Reservation reserve(long inputSize, ConversionParams params) {
+        MemoryBudget.Reservation reservation = memoryBudget.reserve(inputSize, params);
+        try {
+            closeOnAsyncCompletion("reservation", reservation);
+        } catch (RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+        return reservation;
+    }
+
+    /**
+     * Закрывает ресурс по завершении асинхронной обработки текущего запроса в любом исходе:
+     * после записи ответа, по таймауту, при ошибке и при отказе выполнить тело ответа.
+     *
+     * @param name имя ресурса, уникальное в пределах запроса
+     * @param resource ресурс, повторное закрытие которого ничего не делает
+     */
+    private static void closeOnAsyncCompletion(String name, AutoCloseable resource) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+            ConvertController.class.getName() + "." + name,
+            new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) throws Exception {
+                    resource.close();
+                }
+            });
+    }
+
+    /**
+     * Проверяет, совпадает ли ETag с одним из значений If-None-Match.
+     * Слабые ETag сравниваются без префикса W/.
+     *
+     * @param ifNoneMatch значение заголовка If-None-Match
+     * @param etag ETag результата
+     * @return true если клиенту можно вернуть 304
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает размер кэшированного результата.
+     */
+    private long contentLength(Resource resource) {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            throw new ConversionException("Ошибка при чтении результата из кэша: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Создает тело ответа, которое конвертирует XML прямо в выходной поток ответа.
+     * Входной поток открывается только при записи ответа, CSV строки уходят клиенту
+     * по мере обработки тест-кейсов, начиная с первого тест-кейса, прошедшего проверку.
+     * Ошибка до начала передачи (некорректный корневой элемент или первый тест-кейс,
+     * любая ошибка в режиме DOM) возвращается как обычный ответ с ошибкой, ошибка
+     * после начала передачи обрывает ответ.
+     *
+     * @param source источник XML данных
+     * @param params параметры конвертации
+     * @param reservation резерв памяти, освобождается после конвертации
+     * @param logMessage сообщение для лога при ошибке
+     * @param errorPrefix префикс сообщения об ошибке для клиента
+     * @return тело потокового ответа
+     */
+    private StreamingResponseBody streamCsv(InputStreamSource source, ConversionParams params,
+                                            MemoryBudget.Reservation reservation,
+                                            String logMessage, String errorPrefix) {
+        return outputStream -> {
+            try (reservation; InputStream inputStream = source.getInputStream()) {
+                converter.convert(inputStream, params, outputStream);
+            } catch (Exception e) {
+                log.error(logMessage, e);
+                throw new ConversionException(errorPrefix + e.getMessage());
+            }
+        };
     }
 
     /**
-     * Создает HTTP ответ с CSV файлом.
+     * Создает тело ответа, которое конвертирует XML из временного файла прямо во временный файл
+     * результата и затем копирует результат клиенту буфером фиксированного размера.
+     * Резерв памяти освобождается сразу после конвертации, до передачи результата.
+     * Результат попадает в кэш без лишней записи на диск: небольшой читается в память,
+     * большой забирает дисковый кэш. Оба временных файла удаляются после ответа.
      *
-     * @param content содержимое CSV файла
+     * @param source источник XML данных из временного файла
+     * @param upload временный файл с XML
+     * @param params параметры конвертации
+     * @param cacheKey ключ кэша результатов или null, если кэш выключен
+     * @param reservation резерв памяти
+     * @param logMessage сообщение для лога при ошибке
+     * @param errorPrefix префикс сообщения об ошибке для клиента
+     * @return тело потокового ответа
+     */
+    private StreamingResponseBody spilledCsv(InputStreamSource source, UploadSpool.SpooledFile upload,
+                                             ConversionParams params, String cacheKey,
+                                             MemoryBudget.Reservation reservation,
+                                             String logMessage, String errorPrefix) {
+        return outputStream -> {
+            try (reservation; upload;
+                 UploadSpool.SpooledFile result = uploadSpool.createFile("." + params.getFormat().getExtension())) {
+                try (InputStream inputStream = source.getInputStream();
+                     OutputStream resultStream = result.openOutputStream()) {
+                    converter.convert(inputStream, params, resultStream);
+                }
+                reservation.close();
+                try (InputStream resultInput = result.openInputStream()) {
+                    if (cacheKey != null) {
+                        // Файл уже открыт для чтения, поэтому кэш может забрать его себе
+                        resultCache.put(cacheKey, params.getFormat(), result.getPath());
+                    }
+                    resultInput.transferTo(outputStream);
+                }
+            } catch (Exception e) {
+                log.error(logMessage, e);
+                throw new ConversionException(errorPrefix + e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Переносит загруженный файл во временный каталог. Если часть multipart уже записана
+     * на диск, файл переименовывается без копирования.
+     *
+     * @param file загруженный файл
+     * @return временный файл с содержимым загрузки
+     */
+    private UploadSpool.SpooledFile spoolUpload(MultipartFile file) {
+        try {
+            UploadSpool.SpooledFile upload = uploadSpool.createFile(".upload");
+            try {
+                file.transferTo(upload.getPath().toFile());
+            } catch (IOException | RuntimeException e) {
+                upload.close();
+                throw e;
+            }
+            return upload;
+        } catch (IOException e) {
+            log.error("Ошибка при сохранении загруженного файла", e);
+            throw new ConversionException("Ошибка при сохранении файла: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Удаляет временный файл загрузки, если он есть.
+     *
+     * @param upload временный файл или null
+     */
+    private void closeUpload(UploadSpool.SpooledFile upload) {
+        if (upload != null) {
+            upload.close();
+        }
+    }
+
+    /**
+     * Создает потоковый HTTP ответ с CSV или NDJSON файлом.
+     * Длина содержимого заранее неизвестна, поэтому ответ передается частями (chunked).
+     *
+     * @param body тело ответа, записывающее результат
      * @param filename имя файла
-     * @return ResponseEntity с файлом
+     * @param format формат результата
+     * @return ResponseEntity с потоком файла
      */
-    private ResponseEntity<Resource> createCsvResponse(byte[] content, String filename) {
-        ByteArrayResource resource = new ByteArrayResource(content);
-        
+    private ResponseEntity<StreamingResponseBody> createCsvResponse(StreamingResponseBody body, String filename,
+                                                                    OutputFormat format) {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, 
                     ContentDisposition.attachment()
                         .filename(filename, StandardCharsets.UTF_8)
                         .build().toString())
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .contentLength(content.length)
-                .body(resource);
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package org.example.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+import org.example.domain.service.JsonFormatter;
+import org.example.domain.service.UrlTemplate;
+
+/**
+ * Модель мока HTTP запроса из блока &lt;mockData&gt; тест-кейса.
+ * Хранит исходные данные запроса и ответа, форматирование выполняется
+ * только при записи тест-кейса в CSV.
+ */
+@Data
+@Builder
+public class MockData {
+    /** HTTP метод запроса */
+    @Builder.Default private final String method = "";
+
+    /** URL запроса, может содержать плейсхолдеры вида ${name} */
+    @Builder.Default private final String url = "";
+
+    /** Код статуса ответа */
+    @Builder.Default private final String status = "";
+
+    /** Тело ответа */
+    @Builder.Default private final String responseBody = "";
+
+    /**
+     * Параметры запроса в порядке их следования в документе. Имена могут повторяться:
+     * в плейсхолдер URL подставляется первое значение, правила описаны в {@link UrlTemplate#appendTo}.
+     */
+    @Builder.Default private final List<Parameter> parameters = List.of();
+
+    /**
+     * Форматирует мок для колонки предусловий.
+     *
+     * @param index порядковый номер мока
+     * @return строка с форматированными данными мока
+     */
+    public String format(int index) {
+        StringBuilder result = new StringBuilder();
+        appendTo(result, index);
+        return result.toString();
+    }
+
+    /**
+     * Дописывает мок в том же виде, что и {@link #format(int)}.
+     * Параметры подставляются в URL через скомпилированный {@link UrlTemplate}
+     * прямо в получатель, без промежуточных строк.
+     *
+     * @param out получатель текста
+     * @param index порядковый номер мока
+     */
+    public void appendTo(StringBuilder out, int index) {
+        out.append(index).append(". **").append(method.toUpperCase()).append("** ");
+        UrlTemplate.compile(url).appendTo(out, parameters);
+        out.append("\n**Статус:** ").append(status)
+            .append(" \n**Ответ:** \n`").append(JsonFormatter.formatJson(responseBody)).append("`\n");
+    }
+
+    /**
+     * Параметр запроса мока.
+     *
+     * @param name имя параметра
+     * @param value значение параметра
+     */
+    public record Parameter(String name, String value) {
+    }
+}
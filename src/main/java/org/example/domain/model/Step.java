@@ -2,8 +2,10 @@ package org.example.domain.model;
 
 import lombok.Builder;
 import lombok.Data;
+import org.example.domain.model.attributes.ExpectedResult;
 import org.example.domain.model.attributes.StepAttributes;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -20,11 +22,11 @@ public class Step {
     
     /** Список подшагов */
     @Builder.Default
-    private final List<String> subSteps = new ArrayList<>();
+    private final List<TextSlice> subSteps = new ArrayList<>();
     
-    /** Список ожидаемых результатов */
+    /** Список ожидаемых результатов, форматируются только при записи */
     @Builder.Default
-    private final List<String> expectedResults = new ArrayList<>();
+    private final List<ExpectedResult> expectedResults = new ArrayList<>();
 
     /**
      * Проверяет, имеет ли шаг подшаги.
@@ -53,6 +55,18 @@ public class Step {
         return attributes != null ? attributes.getDescription() : "";
     }
 
+    /**
+     * Дописывает описание шага в указанный получатель без промежуточной строки.
+     *
+     * @param out получатель текста
+     * @throws IOException при ошибках записи
+     */
+    public void appendDescription(Appendable out) throws IOException {
+        if (attributes != null) {
+            attributes.appendDescription(out);
+        }
+    }
+
     /**
      * Получает последний ожидаемый результат шага.
      *
@@ -62,6 +76,6 @@ public class Step {
         if (!hasExpectedResults()) {
             return null;
         }
-        return expectedResults.getLast();
+        return expectedResults.getLast().format();
     }
 }
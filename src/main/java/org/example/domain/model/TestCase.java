@@ -2,13 +2,19 @@ package org.example.domain.model;
 
 import lombok.Builder;
 import lombok.Data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.example.domain.service.CsvWriter;
 import org.example.domain.service.JsonFormatter;
+import org.example.domain.service.MetadataColumns;
 
 /**
  * Модель тест-кейса.
- * Представляет структуру тест-кейса с его метаданными и шагами.
+ * Представляет структуру тест-кейса с его шагами и моками.
+ * Метаданные, общие для всех тест-кейсов файла, хранятся отдельно в {@link MetadataColumns}.
  * Поддерживает преобразование в CSV формат.
  */
 @Data
@@ -17,46 +23,13 @@ public class TestCase {
     /** Имя тест-кейса */
     private final String name;
     
-    /** Предусловия тест-кейса */
-    private final String precondition;
+    /** Моки HTTP запросов, из которых формируются предусловия */
+    @Builder.Default
+    private final List<MockData> mockData = List.of();
     
     /** Список шагов тест-кейса */
     private final List<Step> steps;
     
-    /** Имя файла, из которого был загружен тест-кейс */
-    private final String fileName;
-
-    // Необязательные метаданные
-    /** Тег тест-кейса */
-    @Builder.Default private String tag = "";
-    
-    /** Ссылка на связанный ресурс */
-    @Builder.Default private String link = "";
-    
-    /** Дополнительный параметр */
-    @Builder.Default private String parameter = "";
-    
-    /** Ответственный за тест */
-    @Builder.Default private String lead = "";
-    
-    /** Владелец теста */
-    @Builder.Default private String owner = "";
-    
-    /** Набор тестов */
-    @Builder.Default private String suite = "";
-    
-    /** Компонент */
-    @Builder.Default private String component = "";
-    
-    /** История */
-    @Builder.Default private String story = "";
-    
-    /** Функциональность */
-    @Builder.Default private String feature = "";
-    
-    /** Эпик */
-    @Builder.Default private String epic = "";
-
     /**
      * Получает последний ожидаемый результат из всех шагов теста.
      *
@@ -77,6 +50,26 @@ public class TestCase {
         return "";
     }
 
+    /**
+     * Формирует предусловия тест-кейса из данных моков.
+     *
+     * @return строка с форматированными данными моков
+     */
+    public String getPrecondition() {
+        if (mockData == null || mockData.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < mockData.size(); i++) {
+            if (i > 0) {
+                result.append('\n');
+            }
+            mockData.get(i).appendTo(result, i + 1);
+        }
+        return result.toString();
+    }
+
     /**
      * Получает полное имя тест-кейса.
      *
@@ -93,87 +86,182 @@ public class TestCase {
      */
     public String formatSteps() {
         StringBuilder result = new StringBuilder();
+        try {
+            appendSteps(result);
+        } catch (IOException e) {
+            // StringBuilder не выбрасывает IOException
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Дописывает шаги тест-кейса в указанный получатель в том же виде, что и {@link #formatSteps()}.
+     * Текст пишется кусками напрямую, без {@code String.format} и промежуточной строки,
+     * пробельные символы по краям отбрасываются на лету.
+     *
+     * @param out получатель текста, например экранирующее поле CSV
+     * @throws IOException при ошибках записи
+     */
+    public void appendSteps(Appendable out) throws IOException {
+        Appendable result = new TrimmingAppendable(out);
         for (int i = 0; i < steps.size(); i++) {
             Step step = steps.get(i);
             
             // Основной шаг
-            result.append(String.format("[step %d] %s\n", i + 1, step.getDescription()));
+            result.append("[step ");
+            appendNumber(result, i + 1);
+            result.append("] ");
+            step.appendDescription(result);
+            result.append('\n');
             
             // Подшаги
             if (step.hasSubSteps()) {
                 for (int j = 0; j < step.getSubSteps().size(); j++) {
-                    result.append(String.format("\t[step %d.%d] %s\n", 
-                        i + 1, j + 1, JsonFormatter.formatJson(step.getSubSteps().get(j))));
+                    result.append("\t[step ");
+                    appendNumber(result, i + 1);
+                    result.append('.');
+                    appendNumber(result, j + 1);
+                    result.append("] ").append(JsonFormatter.formatJson(step.getSubSteps().get(j).toString())).append('\n');
                 }
             }
             
             // Ожидаемые результаты
             if (step.hasExpectedResults()) {
-                result.append(String.format("\t[expected %d.1] Expected Result\n", i + 1));
+                result.append("\t[expected ");
+                appendNumber(result, i + 1);
+                result.append(".1] Expected Result\n");
                 for (int j = 0; j < step.getExpectedResults().size(); j++) {
-                    result.append(String.format("\t\t[expected.step %d.1.%d] %s\n", 
-                        i + 1, j + 1, JsonFormatter.formatJson(step.getExpectedResults().get(j))));
+                    result.append("\t\t[expected.step ");
+                    appendNumber(result, i + 1);
+                    result.append(".1.");
+                    appendNumber(result, j + 1);
+                    result.append("] ").append(JsonFormatter.formatJson(step.getExpectedResults().get(j).format())).append('\n');
                 }
             }
         }
-        return result.toString().trim();
     }
 
     /**
-     * Получает значение suite с учетом имени файла.
+     * Дописывает неотрицательное число десятичными цифрами без создания строки.
      *
-     * @return значение suite или сгенерированное значение на основе имени файла
+     * @param out получатель текста
+     * @param number число
+     * @throws IOException при ошибках записи
      */
-    private String getSuiteValue() {
-        if (suite != null && !suite.isEmpty()) {
-            return suite;
-        }
-        if (fileName != null && !fileName.isEmpty()) {
-            int lastDot = fileName.lastIndexOf(".");
-            return lastDot > 0 ? "JIACP" + fileName.substring(0, lastDot) : "JIACP" + fileName;
+    private static void appendNumber(Appendable out, int number) throws IOException {
+        if (number >= 10) {
+            appendNumber(out, number / 10);
         }
-        return "";
+        out.append((char) ('0' + number % 10));
     }
 
     /**
-     * Получает значение story с учетом имени файла.
+     * Преобразует тест-кейс в массив строк для CSV.
      *
-     * @return значение story или сгенерированное значение на основе имени файла
+     * @param metadata колонки метаданных конвертации
+     * @return массив строк для записи в CSV файл
      */
-    private String getStoryValue() {
-        if (story != null && !story.isEmpty()) {
-            return story;
-        }
-        if (fileName != null && !fileName.isEmpty()) {
-            int lastDot = fileName.lastIndexOf(".");
-            return lastDot > 0 ? fileName.substring(0, lastDot) : fileName;
-        }
-        return "";
+    public String[] toCsvRow(MetadataColumns metadata) {
+        String[] columns = metadata.values();
+        String[] row = new String[6 + columns.length];
+        row[0] = name;                     // name
+        row[1] = getFullName();            // full_name
+        row[2] = "";                       // description
+        row[3] = getPrecondition();        // precondition
+        row[4] = getFinalExpectedResult(); // expected_result
+        row[5] = formatSteps();            // scenario
+        // tag, link, parameter, Lead, Owner, Suite, Component, Story, Feature, Epic
+        System.arraycopy(columns, 0, row, 6, columns.length);
+        return row;
     }
 
     /**
-     * Преобразует тест-кейс в массив строк для CSV.
+     * Записывает тест-кейс строкой CSV. Сценарий дописывается прямо в поле CSV
+     * через {@link #appendSteps(Appendable)}, без промежуточной строки. Колонки метаданных
+     * общие для всей конвертации и пишутся уже экранированными.
      *
-     * @return массив строк для записи в CSV файл
+     * @param csv писатель CSV
+     * @param metadata колонки метаданных конвертации
+     * @throws IOException при ошибках записи
      */
-    public String[] toCsvRow() {
-        return new String[]{
-                name,                    // name
-                getFullName(),           // full_name
-                "",                      // description 
-                precondition,            // precondition
-                getFinalExpectedResult(),// expected_result
-                formatSteps(),           // scenario
-                tag,                     // tag
-                link,                    // link
-                parameter,               // parameter
-                lead,                    // Lead 
-                owner,                   // Owner 
-                getSuiteValue(),         // Suite
-                component,               // Component
-                getStoryValue(),         // Story
-                feature,                 // Feature
-                epic                     // Epic
-        };
+    public void writeCsvRow(CsvWriter csv, MetadataColumns metadata) throws IOException {
+        csv.writeField(name);
+        csv.writeField(getFullName());
+        csv.writeField("");
+        csv.writeField(getPrecondition());
+        csv.writeField(getFinalExpectedResult());
+        csv.writeField(this::appendSteps);
+        metadata.write(csv);
+        csv.endRow();
+    }
+
+    /**
+     * Получатель текста, отбрасывающий пробельные символы в начале и в конце,
+     * как {@link String#trim()}. Пробельные символы внутри текста придерживаются
+     * до появления следующего значимого символа.
+     */
+    private static final class TrimmingAppendable implements Appendable {
+        private final Appendable out;
+        private final StringBuilder pendingWhitespace = new StringBuilder();
+        private boolean started;
+
+        private TrimmingAppendable(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            CharSequence value = csq != null ? csq : "null";
+            return append(value, 0, value.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            CharSequence value = csq != null ? csq : "null";
+            int first = start;
+            if (!started) {
+                while (first < end && value.charAt(first) <= ' ') {
+                    first++;
+                }
+            }
+            int last = end;
+            while (last > first && value.charAt(last - 1) <= ' ') {
+                last--;
+            }
+            if (first == last) {
+                if (started) {
+                    pendingWhitespace.append(value, first, end);
+                }
+                return this;
+            }
+
+            flushWhitespace();
+            out.append(value, first, last);
+            started = true;
+            pendingWhitespace.append(value, last, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (c <= ' ') {
+                if (started) {
+                    pendingWhitespace.append(c);
+                }
+            } else {
+                flushWhitespace();
+                out.append(c);
+                started = true;
+            }
+            return this;
+        }
+
+        private void flushWhitespace() throws IOException {
+            if (!pendingWhitespace.isEmpty()) {
+                out.append(pendingWhitespace, 0, pendingWhitespace.length());
+                pendingWhitespace.setLength(0);
+            }
+        }
     }
-}
\ No newline at end of file
+}
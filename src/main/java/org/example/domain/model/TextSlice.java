@@ -0,0 +1,164 @@
+package org.example.domain.model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Текст шага или ожидаемого результата как представление диапазона символов без копирования.
+ * Потоковый парсер копирует текст тест-кейса в общий буфер один раз, а шаги и результаты
+ * ссылаются на свои диапазоны. Текст из DOM ссылается на строку узла. Обрезка пробелов
+ * только сужает диапазон, строка создается при первом вызове {@link #toString()},
+ * обычно при записи в CSV, и запоминается.
+ * Символы в пределах диапазона после создания не изменяются.
+ */
+public final class TextSlice implements CharSequence {
+    /** Пустой текст */
+    public static final TextSlice EMPTY = new TextSlice(null, "", 0, 0);
+
+    /** Буфер символов или null, если текст ссылается на строку */
+    private final char[] chars;
+
+    /** Строка, на которую ссылается текст, или null */
+    private final String source;
+
+    private final int offset;
+    private final int length;
+    private String string;
+
+    private TextSlice(char[] chars, String source, int offset, int length) {
+        this.chars = chars;
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Создает представление диапазона буфера без копирования.
+     *
+     * @param chars буфер символов
+     * @param start начало диапазона
+     * @param end конец диапазона, не включая
+     * @return представление диапазона
+     */
+    public static TextSlice of(char[] chars, int start, int end) {
+        checkRange(start, end, chars.length);
+        return start == end ? EMPTY : new TextSlice(chars, null, start, end - start);
+    }
+
+    /**
+     * Создает текст, ссылающийся на строку, без копирования.
+     *
+     * @param value строка
+     * @return текст со значением строки
+     */
+    public static TextSlice of(String value) {
+        return value.isEmpty() ? EMPTY : new TextSlice(null, value, 0, value.length());
+    }
+
+    /**
+     * Возвращает текст без пробельных символов по краям, как {@link String#trim()}, без копирования.
+     *
+     * @return суженное представление или этот же текст
+     */
+    public TextSlice trim() {
+        int start = 0;
+        int end = length;
+        while (start < end && charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return start == 0 && end == length ? this : slice(start, end);
+    }
+
+    /**
+     * Записывает диапазон текста напрямую из буфера или строки, без создания новой строки.
+     *
+     * @param out получатель символов
+     * @param start начало диапазона внутри текста
+     * @param end конец диапазона внутри текста, не включая
+     * @throws IOException при ошибках записи
+     */
+    public void write(Writer out, int start, int end) throws IOException {
+        checkRange(start, end, length);
+        if (chars != null) {
+            out.write(chars, offset + start, end - start);
+        } else {
+            out.write(source, offset + start, end - start);
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return chars != null ? chars[offset + index] : source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end, length);
+        return slice(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String result = string;
+        if (result == null) {
+            if (chars != null) {
+                result = new String(chars, offset, length);
+            } else {
+                result = offset == 0 && length == source.length() ? source : source.substring(offset, offset + length);
+            }
+            string = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TextSlice other) || other.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + charAt(i);
+        }
+        return hash;
+    }
+
+    private TextSlice slice(int start, int end) {
+        return start == end ? EMPTY : new TextSlice(chars, source, offset + start, end - start);
+    }
+
+    private static void checkRange(int start, int end, int length) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Диапазон [" + start + ", " + end + ") вне текста длины " + length);
+        }
+    }
+}
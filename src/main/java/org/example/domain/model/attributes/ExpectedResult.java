@@ -2,6 +2,7 @@ package org.example.domain.model.attributes;
 
 import lombok.Builder;
 import lombok.Data;
+import org.example.domain.model.TextSlice;
 
 /**
  * Представляет один ожидаемый результат шага теста.
@@ -9,6 +10,7 @@ import lombok.Data;
  * 1. Комбинацию state и botResponse вместе (от тега &lt;a&gt;)
  * 2. Поле и его значение для проверки (от тега &lt;responseData&gt;)
  * В одном шаге может быть несколько таких результатов.
+ * Текст результата хранится срезом буфера парсера, строка собирается при записи.
  */
 @Data
 @Builder
@@ -17,13 +19,13 @@ public class ExpectedResult {
     private String state;
     
     /** Ожидаемый ответ бота */
-    private String botResponse;
+    private TextSlice botResponse;
     
     /** Поле для проверки */
     private String field;
     
     /** Значение для проверки поля */
-    private String fieldValue;
+    private TextSlice fieldValue;
     
     /**
      * Преобразует результат в строковое представление.
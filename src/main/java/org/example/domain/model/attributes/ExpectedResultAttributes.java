@@ -1,6 +1,7 @@
 package org.example.domain.model.attributes;
 
 import lombok.Data;
+import org.example.domain.model.TextSlice;
 import org.w3c.dom.Element;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,17 +37,33 @@ public class ExpectedResultAttributes {
      * @return объект с атрибутами результата
      */
     public static ExpectedResultAttributes fromElement(Element element) {
-        String nodeName = element.getNodeName();
-        String text = element.getTextContent().trim();
-        
+        return fromValues(
+            element.getNodeName(),
+            TextSlice.of(element.getTextContent()).trim(),
+            element.getAttribute("state"),
+            element.getAttribute("field")
+        );
+    }
+
+    /**
+     * Создает объект атрибутов результата из уже извлеченных значений узла.
+     * Используется потоковым парсером, у которого нет DOM элемента.
+     *
+     * @param nodeName имя узла
+     * @param text текстовое содержимое узла без пробелов по краям
+     * @param state значение атрибута state
+     * @param field значение атрибута field
+     * @return объект с атрибутами результата
+     */
+    public static ExpectedResultAttributes fromValues(String nodeName, TextSlice text, String state, String field) {
         ExpectedResultAttributes attributes = new ExpectedResultAttributes();
         ExpectedResult result = switch (nodeName) {
             case "a" -> ExpectedResult.builder()
-                .state(element.getAttribute("state"))
+                .state(state)
                 .botResponse(text)
                 .build();
             case "responseData" -> ExpectedResult.builder()
-                .field(element.getAttribute("field"))
+                .field(field)
                 .fieldValue(text)
                 .build();
             default -> null;
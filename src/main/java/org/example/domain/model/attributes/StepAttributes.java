@@ -2,23 +2,27 @@ package org.example.domain.model.attributes;
 
 import lombok.Builder;
 import lombok.Data;
+import org.example.domain.model.TextSlice;
+
+import java.io.IOException;
 
 /**
  * Атрибуты шага тест-кейса.
  * Хранит различные типы шагов: события (event), запросы (request)
- * и вопросы (question).
+ * и вопросы (question). Текст шага хранится срезом буфера парсера
+ * и копируется в строку только при записи.
  */
 @Data
 @Builder
 public class StepAttributes {
     /** Событие для обработки */
-    private String event;
+    private TextSlice event;
     
     /** Запрос для выполнения */
-    private String request;
+    private TextSlice request;
     
     /** Вопрос для отправки */
-    private String question;
+    private TextSlice question;
     
     /**
      * Проверяет, является ли имя узла допустимым шагом.
@@ -40,7 +44,7 @@ public class StepAttributes {
      * @param content содержимое узла
      * @return объект атрибутов шага или null
      */
-    public static StepAttributes fromNodeName(String nodeName, String content) {
+    public static StepAttributes fromNodeName(String nodeName, TextSlice content) {
         return switch (nodeName) {
             case "event" -> StepAttributes.builder()
                 .event(content)
@@ -73,6 +77,22 @@ public class StepAttributes {
         return "";
     }
     
+    /**
+     * Дописывает описание шага в указанный получатель без промежуточной строки.
+     *
+     * @param out получатель текста
+     * @throws IOException при ошибках записи
+     */
+    public void appendDescription(Appendable out) throws IOException {
+        if (event != null) {
+            out.append("Вызвать ивент:\n").append(event);
+        } else if (request != null) {
+            out.append("Отправить запрос:");
+        } else if (question != null) {
+            out.append("Отправить текст в бота:\n").append(question);
+        }
+    }
+    
     /**
      * Проверяет, имеет ли шаг подшаги.
      * Только шаги типа request могут иметь подшаги.
@@ -86,12 +106,12 @@ public class StepAttributes {
     /**
      * Получает массив подшагов.
      *
-     * @return массив строк с подшагами или пустой массив
+     * @return массив подшагов или пустой массив
      */
-    public String[] getSubSteps() {
+    public TextSlice[] getSubSteps() {
         if (request != null) {
-            return new String[]{request};
+            return new TextSlice[]{request};
         }
-        return new String[0];
+        return new TextSlice[0];
     }
 }
@@ -0,0 +1,455 @@
+package org.example.domain.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.config.ConverterProperties;
+import org.example.dto.ConversionParams;
+import org.example.exception.ConversionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Сервис пакетной конвертации нескольких XML файлов за один запрос.
+ * Файлы конвертируются параллельно в отдельном пуле потоков во временные файлы,
+ * а результат собирается в исходном порядке: в ZIP архив с CSV на каждый файл
+ * или в один общий CSV. Одновременно на диске и в обработке находится ограниченное
+ * число файлов, поэтому все результаты целиком в памяти не держатся.
+ * Пул пакетной конвертации отделен от {@link ConversionWorkerPool}: файл с
+ * {@code parallel=true} отправляет тест-кейсы в общий пул и не ждет сам себя.
+ * Для ZIP архивов ограничены число XML файлов и их размер после распаковки: считаются
+ * фактически прочитанные байты, а не размеры из заголовков архива.
+ * Временные файлы создаются в каталоге {@link UploadSpool}.
+ */
+@Service
+public class BatchConversionService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchConversionService.class);
+
+    private final XmlToCsvConverter converter;
+    private final UploadSpool spool;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final int maxZipEntries;
+    private final long maxZipEntryBytes;
+    private final long maxZipTotalBytes;
+
+    /**
+     * Создает сервис с пулом потоков по настройкам конвертера.
+     *
+     * @param converter конвертер одного XML файла
+     * @param spool хранилище временных файлов
+     * @param properties настройки конвертера
+     * @param environment окружение приложения, определяет тип потоков
+     */
+    public BatchConversionService(XmlToCsvConverter converter, UploadSpool spool, ConverterProperties properties,
+                                  Environment environment) {
+        ConverterProperties.Batch batch = properties.getBatch();
+        int poolSize = Math.max(1, batch.getPoolSize());
+        this.converter = converter;
+        this.spool = spool;
+        this.executor = Executors.newFixedThreadPool(poolSize, WorkerThreads.factory("batch-worker-", environment));
+        this.maxInFlight = poolSize * Math.max(1, batch.getInFlightPerWorker());
+        this.maxZipEntries = batch.getMaxZipEntries();
+        this.maxZipEntryBytes = batch.getMaxZipEntrySize().toBytes();
+        this.maxZipTotalBytes = batch.getMaxZipTotalSize().toBytes();
+    }
+
+    /**
+     * Конвертирует файлы и записывает ZIP архив с CSV файлом на каждый XML.
+     * Загруженные ZIP архивы раскрываются: конвертируются все XML файлы внутри.
+     * Ошибка конвертации одного файла не прерывает пакет: вместо CSV в архив
+     * записывается текстовый файл с описанием ошибки. Выходной поток не закрывается.
+     *
+     * @param uploads загруженные файлы
+     * @param params общие параметры конвертации, имя файла подставляется для каждого файла
+     * @param outputFileName функция получения имени CSV файла по имени XML файла
+     * @param outputStream поток для записи ZIP архива
+     * @throws IOException при ошибках чтения загрузок или записи архива
+     */
+    public void convertToZip(List<BatchEntry> uploads, ConversionParams params,
+                             UnaryOperator<String> outputFileName, OutputStream outputStream) throws IOException {
+        try (BatchInput input = expand(uploads)) {
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            Set<String> usedNames = new HashSet<>();
+            runOrdered(input, params, false, (entry, result) -> {
+                if (result.error() == null) {
+                    zip.putNextEntry(new ZipEntry(uniqueName(outputFileName.apply(entry.name()), usedNames)));
+                    Files.copy(result.file(), zip);
+                } else {
+                    zip.putNextEntry(new ZipEntry(uniqueName(entry.name() + ".error.txt", usedNames)));
+                    zip.write(String.valueOf(result.error().getMessage()).getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            });
+            zip.finish();
+            zip.flush();
+        }
+    }
+
+    /**
+     * Конвертирует файлы и записывает один общий CSV: BOM и заголовок один раз,
+     * затем строки всех файлов в порядке загрузки. NDJSON заголовка не имеет,
+     * и записи файлов просто идут подряд. Ошибка в любом файле прерывает
+     * конвертацию. Выходной поток не закрывается.
+     *
+     * @param uploads загруженные файлы
+     * @param params общие параметры конвертации, имя файла подставляется для каждого файла
+     * @param outputStream поток для записи CSV
+     * @throws IOException при ошибках чтения загрузок или записи результата
+     * @throws ConversionException если один из файлов не удалось сконвертировать
+     */
+    public void convertMerged(List<BatchEntry> uploads, ConversionParams params,
+                              OutputStream outputStream) throws IOException {
+        try (BatchInput input = expand(uploads)) {
+            converter.writeHeader(outputStream, params);
+            runOrdered(input, params, true, (entry, result) -> {
+                if (result.error() != null) {
+                    throw new ConversionException("Ошибка в файле " + entry.name() + ": " + result.error().getMessage());
+                }
+                Files.copy(result.file(), outputStream);
+            });
+            outputStream.flush();
+        }
+    }
+
+    /**
+     * Конвертирует файлы в пуле потоков и передает результаты получателю в исходном порядке.
+     * Новые файлы отправляются в пул только после записи самых старых, поэтому
+     * временных файлов одновременно не больше размера окна. Временные файлы
+     * удаляются сразу после записи, а при ошибке удаляются все оставшиеся.
+     * Превышение ограничений ZIP архива прерывает весь пакет.
+     *
+     * @param input XML файлы пакета
+     * @param params общие параметры конвертации
+     * @param rowsOnly записывать только строки, без BOM и заголовка
+     * @param consumer получатель результатов
+     */
+    private void runOrdered(BatchInput input, ConversionParams params, boolean rowsOnly,
+                            ResultConsumer consumer) throws IOException {
+        Deque<PendingFile> window = new ArrayDeque<>();
+        Iterator<BatchEntry> iterator = input.entries.iterator();
+        try {
+            while (iterator.hasNext() || !window.isEmpty()) {
+                while (iterator.hasNext() && window.size() < maxInFlight) {
+                    window.add(submit(iterator.next(), params, rowsOnly));
+                }
+                PendingFile pending = window.poll();
+                try {
+                    FileResult result = await(pending);
+                    input.limits.throwIfExceeded();
+                    consumer.accept(pending.entry(), result);
+                } finally {
+                    Files.deleteIfExists(pending.file());
+                }
+            }
+        } finally {
+            for (PendingFile pending : window) {
+                pending.future().cancel(true);
+                Files.deleteIfExists(pending.file());
+            }
+        }
+    }
+
+    /**
+     * Отправляет конвертацию одного файла в пул. Временный файл создается до отправки,
+     * чтобы его можно было удалить даже при отмене задачи.
+     */
+    private PendingFile submit(BatchEntry entry, ConversionParams params, boolean rowsOnly) throws IOException {
+        Path file = spool.createTempFile("batch-", ".csv");
+        ConversionParams fileParams = params.toBuilder().fileName(simpleName(entry.name())).build();
+        Future<?> future = executor.submit(() -> {
+            try (InputStream in = entry.source().getInputStream();
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                if (rowsOnly) {
+                    converter.convertRows(in, fileParams, out);
+                } else {
+                    converter.convert(in, fileParams, out);
+                }
+            }
+            return null;
+        });
+        return new PendingFile(entry, file, future);
+    }
+
+    /**
+     * Ожидает завершения конвертации файла.
+     *
+     * @return результат с путем к CSV или с ошибкой конвертации
+     */
+    private FileResult await(PendingFile pending) {
+        try {
+            pending.future().get();
+            return new FileResult(pending.file(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConversionException("Пакетная конвертация прервана");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Ошибка при конвертации файла {} в пакете", pending.entry().name(), cause);
+            return new FileResult(null, cause);
+        }
+    }
+
+    /**
+     * Раскрывает загруженные ZIP архивы в список XML файлов.
+     * Архив сохраняется во временный файл, записи читаются через {@link ZipFile}.
+     * Остальные загрузки передаются как есть.
+     */
+    private BatchInput expand(List<BatchEntry> uploads) throws IOException {
+        BatchInput input = new BatchInput(new ZipLimits(maxZipTotalBytes));
+        try {
+            for (BatchEntry upload : uploads) {
+                if (isZip(upload.name())) {
+                    expandZip(upload, input);
+                } else {
+                    input.entries.add(upload);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+        if (input.entries.isEmpty()) {
+            input.close();
+            throw new ConversionException("Не передано ни одного XML файла");
+        }
+        return input;
+    }
+
+    /**
+     * Добавляет XML файлы из загруженного ZIP архива.
+     * Число файлов проверяется сразу, размер — при чтении каждого файла.
+     *
+     * @throws ConversionException если в архивах пакета слишком много XML файлов
+     *                             или размер файла в заголовке превышает ограничение
+     */
+    private void expandZip(BatchEntry upload, BatchInput input) throws IOException {
+        Path archive = spool.createTempFile("batch-upload-", ".zip");
+        input.tempFiles.add(archive);
+        try (InputStream in = upload.source().getInputStream()) {
+            Files.copy(in, archive, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        ZipFile zipFile = new ZipFile(archive.toFile(), StandardCharsets.UTF_8);
+        input.archives.add(zipFile);
+        List<ZipEntry> xmlEntries = zipFile.stream()
+            .filter(entry -> !entry.isDirectory())
+            .filter(entry -> entry.getName().toLowerCase(Locale.ROOT).endsWith(".xml"))
+            .toList();
+        input.zipEntries += xmlEntries.size();
+        if (input.zipEntries > maxZipEntries) {
+            throw new ConversionException("ZIP архивы содержат больше " + maxZipEntries + " XML файлов");
+        }
+        for (ZipEntry entry : xmlEntries) {
+            if (entry.getSize() > maxZipEntryBytes) {
+                throw new ConversionException("Файл " + entry.getName() + " в ZIP архиве больше допустимого размера "
+                    + maxZipEntryBytes + " байт");
+            }
+            input.entries.add(new BatchEntry(entry.getName(),
+                () -> input.limits.limit(zipFile.getInputStream(entry), entry.getName(), maxZipEntryBytes)));
+        }
+    }
+
+    /**
+     * Возвращает имя файла без каталогов архива: по нему заполняются колонки Suite и Story.
+     */
+    private static String simpleName(String name) {
+        return name == null ? null : name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Проверяет, является ли загрузка ZIP архивом, по расширению имени.
+     */
+    private static boolean isZip(String name) {
+        return name != null && name.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    /**
+     * Возвращает имя записи архива, не совпадающее с уже использованными.
+     * К повторяющемуся имени добавляется номер перед расширением.
+     */
+    private static String uniqueName(String name, Set<String> usedNames) {
+        if (usedNames.add(name)) {
+            return name;
+        }
+        int extIndex = name.lastIndexOf('.');
+        String baseName = extIndex > 0 ? name.substring(0, extIndex) : name;
+        String extension = extIndex > 0 ? name.substring(extIndex) : "";
+        int counter = 2;
+        String candidate;
+        do {
+            candidate = baseName + "-" + counter++ + extension;
+        } while (!usedNames.add(candidate));
+        return candidate;
+    }
+
+    /**
+     * Останавливает пул при завершении приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * XML файл пакета.
+     *
+     * @param name имя файла, для файлов из архива — путь внутри архива
+     * @param source источник содержимого файла
+     */
+    public record BatchEntry(String name, InputStreamSource source) {
+    }
+
+    /**
+     * Файл, отправленный на конвертацию.
+     */
+    private record PendingFile(BatchEntry entry, Path file, Future<?> future) {
+    }
+
+    /**
+     * Результат конвертации файла: путь к CSV или ошибка.
+     */
+    private record FileResult(Path file, Throwable error) {
+    }
+
+    /**
+     * Получатель результатов конвертации в исходном порядке файлов.
+     */
+    @FunctionalInterface
+    private interface ResultConsumer {
+        void accept(BatchEntry entry, FileResult result) throws IOException;
+    }
+
+    /**
+     * Список XML файлов пакета вместе с открытыми архивами и временными файлами.
+     */
+    private static final class BatchInput implements Closeable {
+        private final List<BatchEntry> entries = new ArrayList<>();
+        private final List<ZipFile> archives = new ArrayList<>();
+        private final List<Path> tempFiles = new ArrayList<>();
+        private final ZipLimits limits;
+        private int zipEntries;
+
+        BatchInput(ZipLimits limits) {
+            this.limits = limits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (ZipFile archive : archives) {
+                archive.close();
+            }
+            for (Path file : tempFiles) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Ограничение размера распакованных XML файлов из архивов одного пакета.
+     * Потоки файлов считают фактически прочитанные байты. При превышении чтение
+     * прерывается, а нарушение запоминается, чтобы прервать весь пакет, даже если
+     * парсер обернул ошибку чтения в свое исключение.
+     */
+    private static final class ZipLimits {
+        private final long maxTotalBytes;
+        private final AtomicLong totalBytes = new AtomicLong();
+        private volatile String violation;
+
+        ZipLimits(long maxTotalBytes) {
+            this.maxTotalBytes = maxTotalBytes;
+        }
+
+        /**
+         * Оборачивает поток файла архива подсчетом прочитанных байт.
+         */
+        InputStream limit(InputStream in, String name, long maxEntryBytes) {
+            return new FilterInputStream(in) {
+                private long entryBytes;
+
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        count(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    if (read > 0) {
+                        count(read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    count(skipped);
+                    return skipped;
+                }
+
+                private void count(long bytes) throws IOException {
+                    entryBytes += bytes;
+                    if (entryBytes > maxEntryBytes) {
+                        fail("Файл " + name + " в ZIP архиве больше допустимого размера " + maxEntryBytes + " байт");
+                    }
+                    if (totalBytes.addAndGet(bytes) > maxTotalBytes) {
+                        fail("XML файлы в ZIP архивах больше допустимого суммарного размера " + maxTotalBytes + " байт");
+                    }
+                }
+            };
+        }
+
+        /**
+         * Выбрасывает исключение, если при чтении файлов было превышено ограничение.
+         *
+         * @throws ConversionException если ограничение превышено
+         */
+        void throwIfExceeded() {
+            String message = violation;
+            if (message != null) {
+                throw new ConversionException(message);
+            }
+        }
+
+        private void fail(String message) throws IOException {
+            if (violation == null) {
+                violation = message;
+            }
+            throw new IOException(message);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.domain.service;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import org.example.config.ConverterProperties;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Потоковая распаковка сжатых XML данных в форматах gzip и zstd.
+ * Формат определяется по заголовку {@code Content-Encoding} или по сигнатуре в начале данных.
+ * Распакованные данные не накапливаются в памяти, а читаются конвертером по мере распаковки.
+ * Размер распакованных данных ограничен, чтобы маленький архив не разворачивался в гигабайты.
+ */
+@Component
+public class CompressedInputDecoder {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC_0 = 0x1f;
+    private static final int GZIP_MAGIC_1 = 0x8b;
+    private static final int ZSTD_MAGIC = 0xFD2FB528;
+
+    private final long maxDecodedBytes;
+
+    /**
+     * Создает распаковщик по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     */
+    public CompressedInputDecoder(ConverterProperties properties) {
+        this.maxDecodedBytes = properties.getCompression().getMaxDecompressedSize().toBytes();
+    }
+
+    /**
+     * Проверяет, поддерживается ли значение заголовка {@code Content-Encoding}.
+     *
+     * @param contentEncoding значение заголовка, кодировки через запятую в порядке применения
+     * @return true если все кодировки поддерживаются
+     */
+    public boolean supports(String contentEncoding) {
+        for (String encoding : contentEncoding.split(",")) {
+            if (!isIdentity(encoding) && !isGzip(encoding) && !isZstd(encoding)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Оборачивает поток распаковкой по заголовку {@code Content-Encoding}.
+     * Кодировки снимаются в порядке, обратном порядку применения.
+     *
+     * @param inputStream сжатый поток
+     * @param contentEncoding значение заголовка
+     * @return поток распакованных данных
+     * @throws IOException если заголовок сжатого потока поврежден
+     * @throws IllegalArgumentException если кодировка не поддерживается
+     */
+    public InputStream decode(InputStream inputStream, String contentEncoding) throws IOException {
+        String[] encodings = contentEncoding.split(",");
+        InputStream decoded = inputStream;
+        boolean compressed = false;
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            String encoding = encodings[i];
+            if (isGzip(encoding)) {
+                decoded = new GZIPInputStream(decoded, BUFFER_SIZE);
+                compressed = true;
+            } else if (isZstd(encoding)) {
+                decoded = new ZstdInputStreamNoFinalizer(decoded);
+                compressed = true;
+            } else if (!isIdentity(encoding)) {
+                throw new IllegalArgumentException("Неподдерживаемая кодировка содержимого: " + encoding.trim());
+            }
+        }
+        return compressed ? new LimitedInputStream(decoded, maxDecodedBytes) : decoded;
+    }
+
+    /**
+     * Оборачивает поток распаковкой, если данные начинаются с сигнатуры gzip или zstd.
+     * Несжатые данные возвращаются без изменений.
+     *
+     * @param inputStream поток, возможно сжатый
+     * @return поток распакованных данных
+     * @throws IOException при ошибках чтения
+     */
+    public InputStream decodeDetected(InputStream inputStream) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(4);
+        int b0 = buffered.read();
+        int b1 = buffered.read();
+        int b2 = buffered.read();
+        int b3 = buffered.read();
+        buffered.reset();
+
+        if (b0 == GZIP_MAGIC_0 && b1 == GZIP_MAGIC_1) {
+            return new LimitedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), maxDecodedBytes);
+        }
+        if (b3 >= 0 && (b0 | b1 << 8 | b2 << 16 | b3 << 24) == ZSTD_MAGIC) {
+            return new LimitedInputStream(new ZstdInputStreamNoFinalizer(buffered), maxDecodedBytes);
+        }
+        return buffered;
+    }
+
+    /**
+     * Возвращает источник, который при каждом открытии распаковывает сжатые данные.
+     *
+     * @param source источник, возможно сжатый
+     * @return источник распакованных данных
+     */
+    public InputStreamSource detecting(InputStreamSource source) {
+        return () -> decodeDetected(source.getInputStream());
+    }
+
+    /**
+     * Убирает из имени файла расширение сжатия, например {@code cases.xml.gz} → {@code cases.xml}.
+     *
+     * @param fileName имя файла или null
+     * @return имя файла без расширения сжатия
+     */
+    public static String stripCompressionSuffix(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        for (String suffix : new String[] {".gz", ".gzip", ".zst"}) {
+            if (lower.endsWith(suffix) && lower.length() > suffix.length()) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return fileName;
+    }
+
+    private static boolean isIdentity(String encoding) {
+        return "identity".equalsIgnoreCase(encoding.trim());
+    }
+
+    private static boolean isGzip(String encoding) {
+        String value = encoding.trim();
+        return "gzip".equalsIgnoreCase(value) || "x-gzip".equalsIgnoreCase(value);
+    }
+
+    private static boolean isZstd(String encoding) {
+        return "zstd".equalsIgnoreCase(encoding.trim());
+    }
+
+    /**
+     * Поток, который прерывает чтение после указанного числа байт.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long bytes) throws IOException {
+            count += bytes;
+            if (count > limit) {
+                throw new IOException("Распакованные данные превышают допустимый размер " + limit + " байт");
+            }
+        }
+    }
+}
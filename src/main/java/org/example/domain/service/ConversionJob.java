@@ -0,0 +1,104 @@
+package org.example.domain.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.dto.ConversionParams;
+import org.example.dto.OutputFormat;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.Future;
+
+/**
+ * Задача фоновой конвертации одного XML файла.
+ * Состояние меняется потоком конвертации и читается потоками запросов,
+ * поэтому изменяемые поля объявлены volatile.
+ */
+@Getter
+public class ConversionJob {
+    /** Идентификатор задачи */
+    private final String id;
+
+    /** Имя исходного XML файла */
+    private final String fileName;
+
+    /** Имя файла результата для скачивания */
+    private final String outputFileName;
+
+    /** Файл с результатом конвертации, существует только у завершенной задачи */
+    private final Path resultFile;
+
+    /** Время создания задачи */
+    private final Instant createdAt = Instant.now();
+
+    @Getter(AccessLevel.PACKAGE)
+    private final ConversionParams params;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Path inputFile;
+
+    /** Состояние задачи */
+    private volatile ConversionJobStatus status = ConversionJobStatus.QUEUED;
+
+    /** Сколько тест-кейсов обработано на текущий момент */
+    @Setter(AccessLevel.PACKAGE)
+    private volatile long testCasesProcessed;
+
+    /** Сообщение об ошибке для задачи, завершившейся неудачно */
+    private volatile String error;
+
+    /** Время начала конвертации */
+    private volatile Instant startedAt;
+
+    /** Время завершения конвертации */
+    private volatile Instant finishedAt;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private volatile Future<?> future;
+
+    ConversionJob(String id, String fileName, String outputFileName, ConversionParams params,
+                  Path inputFile, Path resultFile) {
+        this.id = id;
+        this.fileName = fileName;
+        this.outputFileName = outputFileName;
+        this.params = params;
+        this.inputFile = inputFile;
+        this.resultFile = resultFile;
+    }
+
+    /**
+     * Возвращает формат результата задачи.
+     *
+     * @return формат результата
+     */
+    public OutputFormat getFormat() {
+        return params.getFormat();
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = ConversionJobStatus.RUNNING;
+    }
+
+    void markCompleted() {
+        finishedAt = Instant.now();
+        status = ConversionJobStatus.COMPLETED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = ConversionJobStatus.FAILED;
+    }
+
+    /**
+     * Проверяет, завершена ли задача успешно или с ошибкой.
+     *
+     * @return true если задача больше не выполняется
+     */
+    public boolean isFinished() {
+        return status == ConversionJobStatus.COMPLETED || status == ConversionJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.domain.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.config.ConverterProperties;
+import org.example.dto.ConversionParams;
+import org.example.exception.JobNotFoundException;
+import org.example.exception.JobRejectedException;
+import org.example.exception.JobStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис фоновой конвертации XML файлов.
+ * Загруженный файл сохраняется во временное хранилище, конвертация выполняется
+ * в ограниченном пуле потоков, результат записывается в файл рядом с исходным.
+ * Завершенные задачи вместе с файлами удаляются по истечении срока хранения.
+ * Задачи хранятся в памяти и не переживают перезапуск приложения.
+ */
+@Service
+public class ConversionJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ConversionJobService.class);
+
+    private final XmlToCsvConverter converter;
+    private final ThreadPoolExecutor executor;
+    private final Path storageDir;
+    private final Duration ttl;
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Создает сервис с пулом потоков и хранилищем по настройкам конвертера.
+     *
+     * @param converter конвертер XML в CSV
+     * @param properties настройки конвертера
+     * @param environment окружение приложения, определяет тип потоков
+     */
+    public ConversionJobService(XmlToCsvConverter converter, ConverterProperties properties, Environment environment) {
+        ConverterProperties.Jobs jobProperties = properties.getJobs();
+        int poolSize = Math.max(1, jobProperties.getPoolSize());
+        this.converter = converter;
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, jobProperties.getQueueCapacity())),
+            WorkerThreads.factory("convert-job-", environment),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.storageDir = jobProperties.getStorageDir();
+        this.ttl = jobProperties.getTtl();
+        try {
+            Files.createDirectories(storageDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог задач " + storageDir, e);
+        }
+    }
+
+    /**
+     * Сохраняет XML файл и ставит его конвертацию в очередь.
+     *
+     * @param source источник XML данных, читается до возврата из метода
+     * @param fileName имя исходного файла
+     * @param outputFileName имя CSV файла для скачивания
+     * @param params параметры конвертации
+     * @return созданная задача
+     * @throws IOException если файл не удалось сохранить
+     * @throws JobRejectedException если очередь задач заполнена
+     */
+    public ConversionJob submit(InputStreamSource source, String fileName, String outputFileName,
+                                ConversionParams params) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path inputFile = storageDir.resolve(id + ".xml");
+        Path resultFile = storageDir.resolve(id + ".csv");
+        try (InputStream in = source.getInputStream()) {
+            Files.copy(in, inputFile);
+        } catch (IOException e) {
+            deleteQuietly(inputFile);
+            throw e;
+        }
+
+        ConversionJob job = new ConversionJob(id, fileName, outputFileName, params, inputFile, resultFile);
+        jobs.put(id, job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            deleteFiles(job);
+            throw new JobRejectedException("Очередь задач конвертации заполнена, повторите запрос позже");
+        }
+        logger.info("Задача конвертации {} для файла {} поставлена в очередь", id, fileName);
+        return job;
+    }
+
+    /**
+     * Возвращает задачу по идентификатору.
+     *
+     * @param id идентификатор задачи
+     * @return задача
+     * @throws JobNotFoundException если задача не найдена или уже удалена
+     */
+    public ConversionJob getJob(String id) {
+        ConversionJob job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException("Задача конвертации " + id + " не найдена");
+        }
+        return job;
+    }
+
+    /**
+     * Возвращает успешно завершенную задачу для скачивания результата.
+     *
+     * @param id идентификатор задачи
+     * @return завершенная задача
+     * @throws JobNotFoundException если задача не найдена или уже удалена
+     * @throws JobStateException если задача еще выполняется или завершилась ошибкой
+     */
+    public ConversionJob getCompletedJob(String id) {
+        ConversionJob job = getJob(id);
+        switch (job.getStatus()) {
+            case COMPLETED -> {
+                return job;
+            }
+            case FAILED -> throw new JobStateException("Задача конвертации " + id + " завершилась ошибкой: " + job.getError());
+            default -> throw new JobStateException("Задача конвертации " + id + " еще не завершена");
+        }
+    }
+
+    /**
+     * Отменяет задачу, если она выполняется, и удаляет ее файлы.
+     *
+     * @param id идентификатор задачи
+     * @throws JobNotFoundException если задача не найдена или уже удалена
+     */
+    public void delete(String id) {
+        ConversionJob job = jobs.remove(id);
+        if (job == null) {
+            throw new JobNotFoundException("Задача конвертации " + id + " не найдена");
+        }
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+        }
+        deleteFiles(job);
+    }
+
+    /**
+     * Удаляет завершенные задачи, срок хранения которых истек.
+     */
+    @Scheduled(fixedDelayString = "${converter.jobs.cleanup-interval:PT1M}")
+    public void removeExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(expiredBefore)) {
+                return false;
+            }
+            deleteFiles(job);
+            logger.info("Задача конвертации {} удалена по истечении срока хранения", job.getId());
+            return true;
+        });
+    }
+
+    /**
+     * Останавливает пул и удаляет файлы всех задач при завершении приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::deleteFiles);
+        jobs.clear();
+    }
+
+    /**
+     * Выполняет конвертацию задачи. Исходный файл читается через отображение в память
+     * и удаляется после конвертации,
+     * файлы задачи, удаленной во время конвертации, удаляются целиком.
+     */
+    private void run(ConversionJob job) {
+        job.markRunning();
+        try {
+            try (InputStream in = new MappedFileInputStream(job.getInputFile());
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(job.getResultFile()))) {
+                converter.convert(in, job.getParams(), out, job::setTestCasesProcessed);
+            }
+            job.markCompleted();
+            logger.info("Задача конвертации {} завершена, тест-кейсов: {}", job.getId(), job.getTestCasesProcessed());
+        } catch (Exception e) {
+            logger.error("Ошибка в задаче конвертации {}", job.getId(), e);
+            job.markFailed(e.getMessage());
+            deleteQuietly(job.getResultFile());
+        } finally {
+            deleteQuietly(job.getInputFile());
+            if (!jobs.containsKey(job.getId())) {
+                deleteFiles(job);
+            }
+        }
+    }
+
+    private void deleteFiles(ConversionJob job) {
+        deleteQuietly(job.getInputFile());
+        deleteQuietly(job.getResultFile());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Не удалось удалить файл {}", file, e);
+        }
+    }
+}
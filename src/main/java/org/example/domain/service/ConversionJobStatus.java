@@ -0,0 +1,15 @@
+package org.example.domain.service;
+
+/**
+ * Состояние задачи фоновой конвертации.
+ */
+public enum ConversionJobStatus {
+    /** Задача ожидает свободного потока */
+    QUEUED,
+    /** Конвертация выполняется */
+    RUNNING,
+    /** Конвертация завершена, результат можно скачать */
+    COMPLETED,
+    /** Конвертация завершилась ошибкой */
+    FAILED
+}
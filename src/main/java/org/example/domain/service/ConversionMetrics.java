@@ -0,0 +1,221 @@
+package org.example.domain.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.dto.ConversionMode;
+import org.example.dto.ConversionParams;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Метрики конвертации для Micrometer.
+ * Публикует время этапов одной конвертации, размеры входа и выхода, число тест-кейсов,
+ * переиспользованные и пересобранные строки и ошибки по типу исключения.
+ * Все метрики имеют префикс {@code converter}, гистограммы перцентилей включаются
+ * в application.properties. Метрики с постоянным набором тегов регистрируются
+ * один раз при создании, а не при каждой конвертации.
+ */
+@Component
+public class ConversionMetrics {
+    private final MeterRegistry registry;
+    private final Map<ConversionMode, ModeMeters> modeMeters = new EnumMap<>(ConversionMode.class);
+
+    /**
+     * Создает метрики поверх реестра приложения.
+     *
+     * @param registry реестр метрик
+     */
+    public ConversionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (ConversionMode mode : ConversionMode.values()) {
+            modeMeters.put(mode, new ModeMeters(mode.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    /**
+     * Записывает метрики успешной конвертации.
+     *
+     * @param params параметры конвертации
+     * @param timings время этапов и число тест-кейсов
+     * @param inputBytes размер входного XML в байтах
+     * @param outputBytes размер записанного CSV в байтах
+     * @param totalNanos полное время конвертации
+     */
+    public void recordConversion(ConversionParams params, StageTimings timings,
+                                 long inputBytes, long outputBytes, long totalNanos) {
+        ModeMeters meters = modeMeters.get(params.getMode());
+        for (Stage stage : Stage.values()) {
+            long nanos = timings.nanos[stage.ordinal()];
+            if (nanos > 0) {
+                meters.stages[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        (params.isParallel() ? meters.parallelConversion : meters.sequentialConversion)
+            .record(totalNanos, TimeUnit.NANOSECONDS);
+        meters.inputSize.record(inputBytes);
+        meters.outputSize.record(outputBytes);
+        meters.testCases.record(timings.testCases);
+        meters.reusedRows.increment(timings.reusedRows);
+        meters.rebuiltRows.increment(timings.testCases - timings.reusedRows);
+    }
+
+    /**
+     * Увеличивает счетчик ошибок конвертации с типом исключения в теге.
+     *
+     * @param params параметры конвертации
+     * @param error исключение
+     */
+    public void recordError(ConversionParams params, Throwable error) {
+        Counter.builder("converter.errors")
+            .description("Ошибки конвертации по типу исключения")
+            .tag("exception", error.getClass().getSimpleName())
+            .tag("mode", modeTag(params))
+            .register(registry)
+            .increment();
+    }
+
+    private static String modeTag(ConversionParams params) {
+        return params.getMode().name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Метрики одного режима конвертации, зарегистрированные заранее.
+     */
+    private final class ModeMeters {
+        private final Timer[] stages = new Timer[Stage.values().length];
+        private final Timer sequentialConversion;
+        private final Timer parallelConversion;
+        private final DistributionSummary inputSize;
+        private final DistributionSummary outputSize;
+        private final DistributionSummary testCases;
+        private final Counter reusedRows;
+        private final Counter rebuiltRows;
+
+        private ModeMeters(String mode) {
+            for (Stage stage : Stage.values()) {
+                stages[stage.ordinal()] = Timer.builder("converter.stage")
+                    .description("Время этапа конвертации одного файла")
+                    .tag("stage", stage.tagValue())
+                    .tag("mode", mode)
+                    .register(registry);
+            }
+            sequentialConversion = conversionTimer(mode, false);
+            parallelConversion = conversionTimer(mode, true);
+            inputSize = summary("converter.input.size", "Размер входного XML", "bytes", mode);
+            outputSize = summary("converter.output.size", "Размер выходного CSV", "bytes", mode);
+            testCases = summary("converter.testcases", "Число тест-кейсов в файле", "testcases", mode);
+            reusedRows = rows("reused", mode);
+            rebuiltRows = rows("rebuilt", mode);
+        }
+
+        private Timer conversionTimer(String mode, boolean parallel) {
+            return Timer.builder("converter.conversion")
+                .description("Полное время конвертации одного файла")
+                .tag("mode", mode)
+                .tag("parallel", String.valueOf(parallel))
+                .register(registry);
+        }
+
+        private DistributionSummary summary(String name, String description, String unit, String mode) {
+            return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tag("mode", mode)
+                .register(registry);
+        }
+
+        private Counter rows(String source, String mode) {
+            return Counter.builder("converter.rows")
+                .description("Строки CSV, взятые из хранилища строк или собранные заново")
+                .tag("source", source)
+                .tag("mode", mode)
+                .register(registry);
+        }
+    }
+
+    /**
+     * Этапы конвертации.
+     * В потоковом режиме чтение XML и построение моделей идут в одном проходе,
+     * поэтому их время попадает в этап {@link #PARSE}. Проверки отдельных тест-кейсов
+     * совмещены с построением моделей, этап {@link #VALIDATE} — итоговая проверка документа.
+     * Форматирование JSON выполняется при записи и входит в этап {@link #WRITE},
+     * отдельно оно измеряется метрикой {@code converter.json.format}.
+     */
+    public enum Stage {
+        PARSE, VALIDATE, BUILD, WRITE;
+
+        private String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Накопитель времени этапов одной конвертации. Используется одним потоком.
+     * Каждый учтенный тест-кейс сообщается слушателю прогресса.
+     */
+    public static final class StageTimings {
+        private final long[] nanos = new long[Stage.values().length];
+        private final LongConsumer progress;
+        private long testCases;
+        private long reusedRows;
+
+        /**
+         * Создает накопитель со слушателем прогресса.
+         *
+         * @param progress получает число обработанных тест-кейсов после каждого тест-кейса
+         */
+        public StageTimings(LongConsumer progress) {
+            this.progress = progress;
+        }
+
+        /**
+         * Добавляет время к этапу.
+         *
+         * @param stage этап
+         * @param elapsedNanos прошедшее время в наносекундах
+         */
+        public void add(Stage stage, long elapsedNanos) {
+            nanos[stage.ordinal()] += elapsedNanos;
+        }
+
+        /**
+         * Учитывает очередной обработанный тест-кейс.
+         */
+        public void countTestCase() {
+            testCases++;
+            progress.accept(testCases);
+        }
+
+        /**
+         * Учитывает строку, взятую из хранилища строк без форматирования.
+         */
+        public void countReusedRow() {
+            reusedRows++;
+        }
+
+        /**
+         * Возвращает число обработанных тест-кейсов.
+         *
+         * @return число тест-кейсов
+         */
+        public long getTestCases() {
+            return testCases;
+        }
+
+        /**
+         * Возвращает число строк, взятых из хранилища строк.
+         *
+         * @return число переиспользованных строк
+         */
+        public long getReusedRows() {
+            return reusedRows;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.domain.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.config.ConverterProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченный пул потоков для параллельной обработки тест-кейсов.
+ * Общий для всех запросов. При переполнении очереди задача выполняется
+ * в вызывающем потоке, поэтому число задач в памяти не растет неограниченно.
+ * В режиме виртуальных потоков рабочие потоки пула виртуальные.
+ */
+@Component
+public class ConversionWorkerPool {
+    private final ThreadPoolExecutor executor;
+    private final int maxInFlight;
+
+    /**
+     * Создает пул по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     * @param environment окружение приложения, определяет тип потоков
+     */
+    public ConversionWorkerPool(ConverterProperties properties, Environment environment) {
+        ConverterProperties.Parallel parallel = properties.getParallel();
+        int poolSize = Math.max(1, parallel.getPoolSize());
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, parallel.getQueueCapacity())),
+            WorkerThreads.factory("convert-worker-", environment),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        this.maxInFlight = poolSize * Math.max(1, parallel.getInFlightPerWorker());
+    }
+
+    /**
+     * Отправляет задачу на выполнение в пул.
+     *
+     * @param task задача
+     * @param <T> тип результата
+     * @return future с результатом задачи
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Возвращает максимальное число одновременно обрабатываемых тест-кейсов одной конвертации.
+     *
+     * @return размер окна параллельной обработки
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Останавливает пул при завершении приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.domain.service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Выходной поток, считающий записанные байты.
+ * Массивы передаются в исходный поток целиком, а не по одному байту,
+ * как в {@link FilterOutputStream} по умолчанию.
+ */
+final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /**
+     * Возвращает число записанных байт.
+     *
+     * @return число байт
+     */
+    long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.domain.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Параметры формата CSV: разделитель полей, символ кавычек и перевод строки.
+ * По умолчанию соответствует формату импорта TestOps.
+ */
+@Data
+@Builder
+public class CsvFormat {
+    /** Разделитель полей */
+    @Builder.Default private final char delimiter = ';';
+
+    /** Символ кавычек для экранирования полей */
+    @Builder.Default private final char quote = '"';
+
+    /** Перевод строки между записями */
+    @Builder.Default private final String lineSeparator = System.lineSeparator();
+}
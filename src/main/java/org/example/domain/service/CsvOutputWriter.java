@@ -0,0 +1,51 @@
+package org.example.domain.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Запись результата в CSV формате импорта TestOps: UTF-8 BOM, заголовок
+ * и строка на каждый тест-кейс с общими для конвертации колонками метаданных.
+ */
+final class CsvOutputWriter implements OutputWriter {
+    /** Метка порядка байтов UTF-8, нужна для корректного открытия CSV в Excel */
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /** Заголовок CSV файла в формате импорта TestOps */
+    private static final String[] CSV_HEADER = {
+        "name", "full_name", "description", "precondition", "expected_result", "scenario",
+        "tag", "link", "parameter", "Lead", "Owner", "Suite", "Component", "Story", "Feature", "Epic"
+    };
+
+    private final CsvFormat format;
+    private final MetadataColumns metadata;
+
+    /**
+     * Создает запись CSV.
+     *
+     * @param format формат CSV
+     * @param metadata колонки метаданных конвертации
+     */
+    CsvOutputWriter(CsvFormat format, MetadataColumns metadata) {
+        this.format = format;
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void writeHeader(OutputStream outputStream) throws IOException {
+        outputStream.write(UTF8_BOM);
+
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        new CsvWriter(writer, format).writeRow(CSV_HEADER);
+        writer.flush();
+    }
+
+    @Override
+    public RecordWriter open(Writer out) {
+        CsvWriter csv = new CsvWriter(out, format);
+        return testCase -> testCase.writeCsvRow(csv, metadata);
+    }
+}
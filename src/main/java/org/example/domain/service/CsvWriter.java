@@ -0,0 +1,278 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TextSlice;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Построчная запись CSV напрямую в {@link Writer}.
+ * Каждое поле просматривается один раз: поле без специальных символов записывается
+ * как есть, иначе заключается в кавычки, а кавычки внутри удваиваются по ходу записи.
+ * Промежуточные строки для полей не создаются.
+ */
+public class CsvWriter {
+    private final Writer out;
+    private final char delimiter;
+    private final char quote;
+    private final String lineSeparator;
+    private final FieldAppendable fieldAppendable = new FieldAppendable();
+    private final char[] scratch = new char[256];
+    private boolean firstField = true;
+
+    /**
+     * Создает писатель поверх указанного получателя.
+     *
+     * @param out получатель символов
+     * @param format формат CSV
+     */
+    public CsvWriter(Writer out, CsvFormat format) {
+        this.out = out;
+        this.delimiter = format.getDelimiter();
+        this.quote = format.getQuote();
+        this.lineSeparator = format.getLineSeparator();
+    }
+
+    /**
+     * Записывает строку CSV целиком.
+     *
+     * @param fields значения полей, null записывается как пустое поле
+     * @throws IOException при ошибках записи
+     */
+    public void writeRow(String... fields) throws IOException {
+        for (String field : fields) {
+            writeField(field);
+        }
+        endRow();
+    }
+
+    /**
+     * Записывает очередное поле текущей строки.
+     *
+     * @param value значение поля, null записывается как пустое поле
+     * @throws IOException при ошибках записи
+     */
+    public void writeField(String value) throws IOException {
+        startField();
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        int special = indexOfSpecial(value, 0, value.length());
+        if (special < 0) {
+            out.write(value);
+            return;
+        }
+
+        out.write(quote);
+        writeEscaped(value, 0, value.length());
+        out.write(quote);
+    }
+
+    /**
+     * Записывает очередное поле, содержимое которого формирует вызывающий код.
+     * Текст, переданный в {@link Appendable}, экранируется на лету. Пока не встретился
+     * специальный символ, начало поля копится в небольшом буфере: если такой символ
+     * так и не появится, поле будет записано без кавычек, как {@link #writeField(String)}.
+     *
+     * @param renderer код, дописывающий содержимое поля
+     * @throws IOException при ошибках записи
+     */
+    public void writeField(FieldRenderer renderer) throws IOException {
+        startField();
+        fieldAppendable.quoted = false;
+        renderer.render(fieldAppendable);
+        fieldAppendable.finish();
+    }
+
+    /**
+     * Записывает очередное поле, уже экранированное методом {@link #escape(String, CsvFormat)}
+     * для того же формата. Значение пишется как есть, без повторной проверки символов.
+     *
+     * @param escaped экранированное значение поля
+     * @throws IOException при ошибках записи
+     */
+    public void writeEscapedField(String escaped) throws IOException {
+        startField();
+        out.write(escaped);
+    }
+
+    /**
+     * Экранирует значение поля так же, как {@link #writeField(String)}.
+     * Используется для значений, общих для многих строк, чтобы не проверять их в каждой строке.
+     *
+     * @param value значение поля, null считается пустым полем
+     * @param format формат CSV
+     * @return значение в том виде, в котором оно записывается в CSV
+     */
+    public static String escape(String value, CsvFormat format) {
+        StringWriter result = new StringWriter();
+        try {
+            new CsvWriter(result, format).writeField(value);
+        } catch (IOException e) {
+            // StringWriter не выбрасывает IOException
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Завершает текущую строку.
+     *
+     * @throws IOException при ошибках записи
+     */
+    public void endRow() throws IOException {
+        out.write(lineSeparator);
+        firstField = true;
+    }
+
+    /**
+     * Записывает разделитель перед всеми полями строки, кроме первого.
+     */
+    private void startField() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            out.write(delimiter);
+        }
+    }
+
+    /**
+     * Находит первый символ, требующий заключения поля в кавычки.
+     *
+     * @param value значение поля
+     * @param start начало проверяемого диапазона
+     * @param end конец проверяемого диапазона
+     * @return индекс символа или -1, если экранирование не нужно
+     */
+    private int indexOfSpecial(CharSequence value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == quote || c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Записывает диапазон символов, удваивая кавычки. Открывающая и закрывающая
+     * кавычки пишутся вызывающим кодом.
+     */
+    private void writeEscaped(CharSequence value, int start, int end) throws IOException {
+        int from = start;
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == quote) {
+                writeRange(value, from, i + 1);
+                out.write(quote);
+                from = i + 1;
+            }
+        }
+        writeRange(value, from, end);
+    }
+
+    /**
+     * Записывает диапазон символов без копирования в новую строку.
+     */
+    private void writeRange(CharSequence value, int start, int end) throws IOException {
+        if (value instanceof String string) {
+            out.write(string, start, end - start);
+            return;
+        }
+        if (value instanceof TextSlice slice) {
+            slice.write(out, start, end);
+            return;
+        }
+        int position = start;
+        while (position < end) {
+            int length = Math.min(scratch.length, end - position);
+            for (int i = 0; i < length; i++) {
+                scratch[i] = value.charAt(position + i);
+            }
+            out.write(scratch, 0, length);
+            position += length;
+        }
+    }
+
+    /**
+     * Формирует содержимое поля CSV.
+     */
+    @FunctionalInterface
+    public interface FieldRenderer {
+        /**
+         * Дописывает содержимое поля.
+         *
+         * @param field получатель содержимого, экранирующий символы CSV
+         * @throws IOException при ошибках записи
+         */
+        void render(Appendable field) throws IOException;
+    }
+
+    /**
+     * Экранирующий получатель содержимого одного поля. Переиспользуется между полями.
+     */
+    private final class FieldAppendable implements Appendable {
+        private final StringBuilder prefix = new StringBuilder();
+        private boolean quoted;
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            CharSequence value = csq != null ? csq : "null";
+            return append(value, 0, value.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            CharSequence value = csq != null ? csq : "null";
+            if (quoted) {
+                writeEscaped(value, start, end);
+            } else if (indexOfSpecial(value, start, end) < 0) {
+                prefix.append(value, start, end);
+            } else {
+                startQuoting();
+                writeEscaped(value, start, end);
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (quoted) {
+                out.write(c);
+                if (c == quote) {
+                    out.write(quote);
+                }
+            } else if (c == delimiter || c == quote || c == '\n' || c == '\r') {
+                startQuoting();
+                append(c);
+            } else {
+                prefix.append(c);
+            }
+            return this;
+        }
+
+        /**
+         * Открывает кавычки и переносит накопленное начало поля в выходной поток.
+         */
+        private void startQuoting() throws IOException {
+            quoted = true;
+            out.write(quote);
+            writeRange(prefix, 0, prefix.length());
+            prefix.setLength(0);
+        }
+
+        /**
+         * Завершает поле: закрывает кавычки или пишет накопленное поле без них.
+         */
+        private void finish() throws IOException {
+            if (quoted) {
+                out.write(quote);
+            } else {
+                writeRange(prefix, 0, prefix.length());
+                prefix.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.domain.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Выходной поток, который придерживает начало результата до проверки документа.
+ * Пока поток не открыт, запись накапливается в памяти. {@link #open()} передает накопленное
+ * получателю, дальше запись идет в получателя напрямую. До открытия пишется только
+ * начало файла, поэтому буфер небольшой. Если конвертация прервется до открытия,
+ * получатель не получит ни одного байта. Закрытие не закрывает получателя.
+ */
+final class DeferredOutputStream extends OutputStream {
+    private final OutputStream target;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(256);
+
+    /**
+     * Создает закрытый для получателя поток.
+     *
+     * @param target получатель данных
+     */
+    DeferredOutputStream(OutputStream target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        (pending != null ? pending : target).write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        (pending != null ? pending : target).write(b, off, len);
+    }
+
+    /**
+     * Передает накопленные данные получателю и переключает запись на него.
+     * Повторный вызов ничего не делает.
+     *
+     * @throws IOException при ошибках записи
+     */
+    void open() throws IOException {
+        if (pending != null) {
+            pending.writeTo(target);
+            pending = null;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pending == null) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        pending = null;
+    }
+}
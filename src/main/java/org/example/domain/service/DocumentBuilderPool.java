@@ -0,0 +1,113 @@
+package org.example.domain.service;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.StringReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул переиспользуемых {@link DocumentBuilder}.
+ * Фабрика создается и настраивается один раз: поиск реализации через service loader
+ * и настройка не повторяются на каждый запрос. Парсер не потокобезопасен, поэтому
+ * каждый разбор берет свой экземпляр из пула и возвращает его после {@link DocumentBuilder#reset()}.
+ * Пул не привязан к потокам и подходит для виртуальных потоков.
+ * Хранится не больше заданного числа свободных парсеров, лишние отбрасываются.
+ */
+final class DocumentBuilderPool {
+    /** Предел раскрытия сущностей в документе */
+    private static final String ENTITY_EXPANSION_LIMIT = "64000";
+
+    private final DocumentBuilderFactory factory;
+    private final Queue<DocumentBuilder> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+
+    /**
+     * Создает пул с защищенной фабрикой парсеров.
+     *
+     * @param maxIdle максимальное число свободных парсеров в пуле
+     */
+    DocumentBuilderPool(int maxIdle) {
+        this.factory = createFactory();
+        this.maxIdle = Math.max(1, maxIdle);
+    }
+
+    /**
+     * Берет парсер из пула или создает новый.
+     *
+     * @return парсер, готовый к разбору
+     * @throws ParserConfigurationException если парсер не удалось создать
+     */
+    DocumentBuilder borrow() throws ParserConfigurationException {
+        DocumentBuilder builder = idle.poll();
+        if (builder != null) {
+            idleCount.decrementAndGet();
+        } else {
+            builder = factory.newDocumentBuilder();
+        }
+        // reset() возвращает обработчики к исходным, поэтому они задаются при каждой выдаче
+        builder.setErrorHandler(new DefaultHandler());
+        builder.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+        return builder;
+    }
+
+    /**
+     * Сбрасывает состояние парсера и возвращает его в пул.
+     * Парсер, который не удалось сбросить, в пул не возвращается.
+     *
+     * @param builder парсер, полученный из {@link #borrow()}
+     */
+    void release(DocumentBuilder builder) {
+        try {
+            builder.reset();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(builder);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Создает фабрику с ограничениями безопасной обработки: документ с DOCTYPE отклоняется,
+     * как и потоковым читателем, внешние DTD и сущности не загружаются, XInclude выключен,
+     * раскрытие сущностей ограничено.
+     */
+    private static DocumentBuilderFactory createFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Не удалось настроить XML парсер", e);
+        }
+        factory.setXIncludeAware(false);
+        setAttributeIfSupported(factory, XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        setAttributeIfSupported(factory, XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        setAttributeIfSupported(factory, "jdk.xml.entityExpansionLimit", ENTITY_EXPANSION_LIMIT);
+        return factory;
+    }
+
+    /**
+     * Устанавливает атрибут фабрики, если реализация его поддерживает.
+     */
+    private static void setAttributeIfSupported(DocumentBuilderFactory factory, String name, String value) {
+        try {
+            factory.setAttribute(name, value);
+        } catch (IllegalArgumentException e) {
+            // Атрибут специфичен для реализации JDK, у других реализаций его может не быть
+        }
+    }
+}
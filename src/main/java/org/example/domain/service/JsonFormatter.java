@@ -1,17 +1,59 @@
 package org.example.domain.service;
 
-import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Сервис для форматирования JSON строк.
  * Предоставляет функциональность для красивого форматирования JSON контента
  * с отступами и переносами строк.
+ * Результаты форматирования кэшируются между запросами: одни и те же тела
+ * моков и запросов повторяются во многих тест-кейсах.
+ * Форматирование вызывается из моделей при записи строк, поэтому API статический,
+ * а кэш общий для JVM. Кэш настраивается один раз явным вызовом {@link #configure},
+ * после чего настройки не меняются; до настройки JSON форматируется без кэша.
+ * Статистика кэша и время форматирования подключаются к реестру метрик через {@link #bindTo}.
  */
-@Service
-public class JsonFormatter {
+public final class JsonFormatter {
+    /** Оценка накладных расходов на одну запись кэша в байтах */
+    private static final int CACHE_ENTRY_OVERHEAD_BYTES = 96;
+
+    /** Кэш и его настройки, null пока не вызван {@link #configure} */
+    private static volatile FormatCache formatCache;
+
+    /** Число и суммарное время форматирований при попадании в кэш */
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder hitNanos = new LongAdder();
+
+    /** Число и суммарное время форматирований при промахе или без кэша */
+    private static final LongAdder missCount = new LongAdder();
+    private static final LongAdder missNanos = new LongAdder();
+
+    /**
+     * Фабрика потоковых парсеров и генераторов JSON.
+     * Дубликаты ключей считаются ошибкой, чтобы такие документы форматировались
+     * через дерево объектов, как раньше: там последний ключ перекрывает первый.
+     */
+    private static final JsonFactory jsonFactory = JsonFactory.builder()
+            .enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION)
+            .build();
+
     /** ObjectMapper для форматирования JSON с отступами */
     private static final ObjectMapper prettyObjectMapper = new ObjectMapper()
             .enable(SerializationFeature.INDENT_OUTPUT);
@@ -19,8 +61,57 @@ public class JsonFormatter {
     /** ObjectMapper для компактного представления JSON */
     private static final ObjectMapper compactObjectMapper = new ObjectMapper();
 
+    private JsonFormatter() {
+    }
+
+    /**
+     * Настраивает кэш форматирования. Настройки задаются один раз на JVM: повторный вызов
+     * с теми же значениями ничего не делает, с другими значениями — ошибка.
+     *
+     * @param cacheEnabled включено ли кэширование
+     * @param maxCacheBytes максимальный суммарный размер записей кэша
+     * @throws IllegalStateException если кэш уже настроен с другими значениями
+     */
+    public static synchronized void configure(boolean cacheEnabled, long maxCacheBytes) {
+        FormatCache current = formatCache;
+        if (current != null) {
+            if (current.enabled() != cacheEnabled || current.maxBytes() != maxCacheBytes) {
+                throw new IllegalStateException("Кэш форматирования JSON уже настроен: enabled="
+                    + current.enabled() + ", maxBytes=" + current.maxBytes());
+            }
+            return;
+        }
+        Cache<String, String> cache = cacheEnabled
+            ? Caffeine.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                .<String, String>weigher(JsonFormatter::cacheEntryWeight)
+                .recordStats()
+                .build()
+            : null;
+        formatCache = new FormatCache(cacheEnabled, maxCacheBytes, cache);
+    }
+
+    /**
+     * Подключает метрики кэша ({@code cache.*} с именем {@code json-format})
+     * и время форматирования {@code converter.json.format} с тегом {@code cache=hit|miss}.
+     * Счетчики общие для JVM, каждый реестр читает одни и те же значения.
+     *
+     * @param registry реестр метрик
+     */
+    public static void bindTo(MeterRegistry registry) {
+        FormatCache current = formatCache;
+        if (current != null && current.cache() != null) {
+            CaffeineCacheMetrics.monitor(registry, current.cache(), "json-format");
+        }
+        formatTimer(registry, "hit", hitCount, hitNanos);
+        formatTimer(registry, "miss", missCount, missNanos);
+    }
+
     /**
      * Форматирует JSON строку, добавляя отступы и переносы строк.
+     * Токены копируются из парсера прямо в генератор с {@link DefaultPrettyPrinter},
+     * промежуточное дерево объектов не строится. Формат вывода совпадает с
+     * {@code SerializationFeature.INDENT_OUTPUT}.
      * Если входная строка не является JSON объектом, возвращает её без изменений.
      *
      * @param text строка для форматирования
@@ -30,12 +121,56 @@ public class JsonFormatter {
         if (!isJsonObject(text)) {
             return text;
         }
+        long start = System.nanoTime();
+        FormatCache current = formatCache;
+        Cache<String, String> cache = current != null ? current.cache() : null;
+        if (cache == null) {
+            String formatted = formatJsonStreaming(text);
+            record(missCount, missNanos, start);
+            return formatted;
+        }
+
+        String cached = cache.getIfPresent(text);
+        if (cached != null) {
+            record(hitCount, hitNanos, start);
+            return cached;
+        }
+        String formatted = formatJsonStreaming(text);
+        cache.put(text, formatted);
+        record(missCount, missNanos, start);
+        return formatted;
+    }
+
+    /**
+     * Форматирует JSON потоковым копированием токенов без кэша.
+     *
+     * @param text строка с JSON объектом или массивом
+     * @return отформатированный JSON или исходная строка, если форматирование невозможно
+     */
+    private static String formatJsonStreaming(String text) {
+        StringWriter result = new StringWriter(text.length() + (text.length() >> 1));
+        try (JsonParser parser = jsonFactory.createParser(text);
+             JsonGenerator generator = jsonFactory.createGenerator(result)) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+            // Копируем только первое значение, остаток строки игнорируется, как при чтении в объект
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            // Редкий случай ошибки или дубликатов ключей разбираем через дерево объектов
+            return formatJsonTree(text);
+        }
+        return result.toString();
+    }
 
+    /**
+     * Форматирует JSON через промежуточное дерево объектов.
+     *
+     * @param text строка для форматирования
+     * @return отформатированный JSON или исходная строка, если форматирование невозможно
+     */
+    private static String formatJsonTree(String text) {
         try {
-            // Сначала читаем JSON в объект с помощью компактного маппера
             Object jsonObject = compactObjectMapper.readValue(text, Object.class);
-            
-            // Всегда возвращаем красиво отформатированный JSON
             return prettyObjectMapper.writeValueAsString(jsonObject);
         } catch (JsonProcessingException e) {
             // Если произошла ошибка парсинга, возвращаем исходный текст
@@ -43,6 +178,30 @@ public class JsonFormatter {
         }
     }
 
+    private static void formatTimer(MeterRegistry registry, String cacheResult, LongAdder count, LongAdder nanos) {
+        FunctionTimer.builder("converter.json.format", count, LongAdder::sum, c -> nanos.sum(), TimeUnit.NANOSECONDS)
+            .description("Время форматирования одного JSON фрагмента")
+            .tag("cache", cacheResult)
+            .register(registry);
+    }
+
+    private static void record(LongAdder count, LongAdder nanos, long start) {
+        nanos.add(System.nanoTime() - start);
+        count.increment();
+    }
+
+    /**
+     * Оценивает размер записи кэша в байтах.
+     *
+     * @param text исходный текст
+     * @param formatted отформатированный текст
+     * @return вес записи
+     */
+    private static int cacheEntryWeight(String text, String formatted) {
+        long chars = text == formatted ? text.length() : (long) text.length() + formatted.length();
+        return (int) Math.min(Integer.MAX_VALUE, chars * 2 + CACHE_ENTRY_OVERHEAD_BYTES);
+    }
+
     /**
      * Проверяет, является ли текст JSON объектом или массивом.
      * Проверка основана на наличии фигурных или квадратных скобок в начале и конце строки.
@@ -55,4 +214,16 @@ public class JsonFormatter {
         return (trimmed.startsWith("{") && trimmed.endsWith("}")) || 
                (trimmed.startsWith("[") && trimmed.endsWith("]"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Неизменяемые настройки кэша вместе с самим кэшем.
+     * Ключом кэша служит сам текст: поиск идет по его хэшу, а сравнение содержимого
+     * исключает ошибки при коллизиях. Вес записи равен примерному размеру строк в байтах.
+     *
+     * @param enabled включено ли кэширование
+     * @param maxBytes максимальный суммарный размер записей
+     * @param cache кэш отформатированного JSON по исходному тексту или null, если кэш выключен
+     */
+    private record FormatCache(boolean enabled, long maxBytes, Cache<String, String> cache) {
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.domain.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Поток чтения файла через отображение в память.
+ * Файл отображается окнами фиксированного размера по мере чтения, поэтому
+ * поддерживаются файлы больше 2 ГБ, а данные не копируются через буфер ядра.
+ * Прочитанные окна освобождаются сборщиком мусора.
+ */
+public final class MappedFileInputStream extends InputStream {
+    /** Размер окна отображения по умолчанию */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Открывает файл с окном отображения по умолчанию.
+     *
+     * @param file файл
+     * @throws IOException если файл не удалось открыть
+     */
+    public MappedFileInputStream(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Открывает файл.
+     *
+     * @param file файл
+     * @param windowSize размер окна отображения в байтах
+     * @throws IOException если файл не удалось открыть
+     */
+    public MappedFileInputStream(Path file, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindow()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int read = Math.min(len, window.remaining());
+        window.get(b, off, read);
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long position = position();
+        long skipped = Math.max(0, Math.min(n, size - position));
+        if (window != null && skipped <= window.remaining()) {
+            window.position(window.position() + (int) skipped);
+        } else {
+            window = null;
+            windowStart = position + skipped;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private long position() {
+        return window != null ? windowStart + window.position() : windowStart;
+    }
+
+    /**
+     * Отображает следующее окно, если текущее прочитано.
+     *
+     * @return false если файл прочитан до конца
+     */
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        long next = position();
+        if (next >= size) {
+            return false;
+        }
+        windowStart = next;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, size - next));
+        return true;
+    }
+}
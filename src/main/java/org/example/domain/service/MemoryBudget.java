@@ -0,0 +1,157 @@
+package org.example.domain.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.config.ConverterProperties;
+import org.example.dto.ConversionMode;
+import org.example.dto.ConversionParams;
+import org.example.exception.AdmissionRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Допуск конвертаций по общему бюджету памяти.
+ * Перед конвертацией запрос резервирует оценку своей памяти: размер входа, умноженный
+ * на коэффициент режима (DOM документ занимает во много раз больше XML). Если бюджета
+ * не хватает, запрос ждет в справедливой очереди не дольше {@code converter.admission.max-wait},
+ * после чего отклоняется {@link AdmissionRejectedException}. Бюджет учитывается
+ * в килобайтах. Для сжатых загрузок оценка строится по сжатому размеру.
+ */
+@Component
+public class MemoryBudget implements MeterBinder {
+    /** Единица учета бюджета в байтах */
+    private static final long UNIT = 1024;
+
+    private final boolean enabled;
+    private final int totalUnits;
+    private final Semaphore units;
+    private final int domExpansion;
+    private final int streamingExpansion;
+    private final long minReservation;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Создает бюджет по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     */
+    public MemoryBudget(ConverterProperties properties) {
+        ConverterProperties.Admission admission = properties.getAdmission();
+        this.enabled = admission.isEnabled();
+        this.totalUnits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, admission.getMemoryBudget().toBytes() / UNIT));
+        this.units = new Semaphore(totalUnits, true);
+        this.domExpansion = admission.getDomExpansion();
+        this.streamingExpansion = admission.getStreamingExpansion();
+        this.minReservation = admission.getMinReservation().toBytes();
+        this.maxWait = admission.getMaxWait();
+        this.retryAfter = admission.getRetryAfter();
+    }
+
+    /**
+     * Резервирует память для конвертации входа заданного размера.
+     * Оценка больше всего бюджета уменьшается до бюджета: такая конвертация
+     * дождется, пока остальные завершатся, и выполнится одна.
+     *
+     * @param inputBytes размер входа в байтах, 0 или меньше, если неизвестен
+     * @param params параметры конвертации
+     * @return резерв, который нужно закрыть после конвертации
+     * @throws AdmissionRejectedException если память не освободилась за время ожидания
+     */
+    public Reservation reserve(long inputBytes, ConversionParams params) {
+        if (!enabled) {
+            return Reservation.NONE;
+        }
+        int requested = toUnits(estimate(inputBytes, params));
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = units.tryAcquire(requested, maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            rejected.incrementAndGet();
+            throw new AdmissionRejectedException(
+                "Сервис занят конвертацией других файлов, повторите запрос позже", retryAfter);
+        }
+        admitted.incrementAndGet();
+        return new Reservation(units, requested);
+    }
+
+    /**
+     * Оценивает память конвертации в байтах.
+     *
+     * @param inputBytes размер входа в байтах
+     * @param params параметры конвертации
+     * @return оценка памяти
+     */
+    long estimate(long inputBytes, ConversionParams params) {
+        int expansion = params.getMode() == ConversionMode.DOM ? domExpansion : streamingExpansion;
+        long estimate = inputBytes > Long.MAX_VALUE / expansion ? Long.MAX_VALUE : inputBytes * expansion;
+        return Math.max(minReservation, estimate);
+    }
+
+    private int toUnits(long bytes) {
+        long requested = (bytes + UNIT - 1) / UNIT;
+        return (int) Math.max(1, Math.min(totalUnits, requested));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("converter.admission.waiting", waiting, AtomicInteger::get)
+            .description("Запросы, ожидающие бюджета памяти")
+            .register(registry);
+        Gauge.builder("converter.admission.reserved", this, budget -> (double) (budget.totalUnits - budget.units.availablePermits()) * UNIT)
+            .description("Память, зарезервированная выполняющимися конвертациями")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("converter.admission.admitted", admitted, AtomicLong::get)
+            .description("Конвертации, получившие бюджет памяти")
+            .register(registry);
+        FunctionCounter.builder("converter.admission.rejected", rejected, AtomicLong::get)
+            .description("Запросы, отклоненные с 429 из-за нехватки бюджета памяти")
+            .register(registry);
+    }
+
+    /**
+     * Зарезервированная часть бюджета. Повторное закрытие ничего не делает.
+     */
+    public static final class Reservation implements AutoCloseable {
+        /** Пустой резерв, когда бюджет выключен */
+        static final Reservation NONE = new Reservation(null, 0);
+
+        private final Semaphore units;
+        private final int count;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(Semaphore units, int count) {
+            this.units = units;
+            this.count = count;
+        }
+
+        /**
+         * Возвращает память в бюджет.
+         */
+        @Override
+        public void close() {
+            if (units != null && released.compareAndSet(false, true)) {
+                units.release(count);
+            }
+        }
+    }
+}
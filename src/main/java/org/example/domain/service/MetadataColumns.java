@@ -0,0 +1,89 @@
+package org.example.domain.service;
+
+import org.example.dto.ConversionParams;
+
+import java.io.IOException;
+
+/**
+ * Колонки метаданных, одинаковые для всех тест-кейсов одной конвертации:
+ * tag, link, parameter, Lead, Owner, Suite, Component, Story, Feature и Epic.
+ * Значения вычисляются из {@link ConversionParams} и экранируются для CSV один раз
+ * на конвертацию, после чего один экземпляр используется всеми строками.
+ */
+public final class MetadataColumns {
+    private final String[] values;
+    private final String[] escaped;
+
+    private MetadataColumns(String[] values, CsvFormat format) {
+        this.values = values;
+        this.escaped = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            escaped[i] = CsvWriter.escape(values[i], format);
+        }
+    }
+
+    /**
+     * Вычисляет колонки метаданных по параметрам конвертации.
+     * Пустые Suite и Story заполняются по имени исходного файла без расширения.
+     *
+     * @param params параметры конвертации
+     * @param format формат CSV, для которого экранируются значения
+     * @return колонки метаданных
+     */
+    public static MetadataColumns resolve(ConversionParams params, CsvFormat format) {
+        String baseName = baseName(params.getFileName());
+        String suite = orEmpty(params.getSuite());
+        String story = orEmpty(params.getStory());
+        return new MetadataColumns(new String[] {
+            orEmpty(params.getTag()),
+            orEmpty(params.getLink()),
+            orEmpty(params.getParameter()),
+            orEmpty(params.getLead()),
+            orEmpty(params.getOwner()),
+            !suite.isEmpty() ? suite : baseName != null ? "JIACP" + baseName : "",
+            orEmpty(params.getComponent()),
+            !story.isEmpty() ? story : baseName != null ? baseName : "",
+            orEmpty(params.getFeature()),
+            orEmpty(params.getEpic())
+        }, format);
+    }
+
+    /**
+     * Возвращает значения колонок без экранирования в порядке колонок CSV.
+     *
+     * @return копия значений колонок
+     */
+    public String[] values() {
+        return values.clone();
+    }
+
+    /**
+     * Дописывает колонки в текущую строку CSV готовыми экранированными значениями.
+     *
+     * @param csv писатель CSV
+     * @throws IOException при ошибках записи
+     */
+    public void write(CsvWriter csv) throws IOException {
+        for (String field : escaped) {
+            csv.writeEscapedField(field);
+        }
+    }
+
+    /**
+     * Получает имя файла без расширения.
+     *
+     * @param fileName имя файла или null
+     * @return имя без расширения или null, если имя файла не задано
+     */
+    private static String baseName(String fileName) {
+        if (fileName == null || fileName.isEmpty()) {
+            return null;
+        }
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot > 0 ? fileName.substring(0, lastDot) : fileName;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.domain.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.example.domain.model.Step;
+import org.example.domain.model.TestCase;
+import org.example.domain.model.TextSlice;
+import org.example.domain.model.attributes.ExpectedResult;
+import org.example.domain.model.attributes.StepAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Запись результата в формате NDJSON: один JSON объект на строку для каждого тест-кейса.
+ * Шаги, подшаги и ожидаемые результаты передаются массивами, поэтому получателю
+ * не нужно разбирать текст сценария. Объекты пишутся потоково генератором Jackson
+ * по мере появления тест-кейсов. Поля метаданных одинаковы для всей конвертации
+ * и сериализуются один раз.
+ */
+final class NdjsonOutputWriter implements OutputWriter {
+    /** Имена полей метаданных в порядке колонок {@link MetadataColumns} */
+    private static final List<String> METADATA_FIELDS = List.of(
+        "tag", "link", "parameter", "lead", "owner", "suite", "component", "story", "feature", "epic");
+
+    /** Генераторы не закрывают и не сбрасывают получателя: им управляет получатель тест-кейсов */
+    private static final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    /** Поля метаданных в виде готового фрагмента JSON, начинающегося с запятой */
+    private final String metadataFields;
+
+    /**
+     * Создает запись NDJSON.
+     *
+     * @param metadata колонки метаданных конвертации
+     */
+    NdjsonOutputWriter(MetadataColumns metadata) {
+        this.metadataFields = serializeMetadata(metadata);
+    }
+
+    @Override
+    public void writeHeader(OutputStream outputStream) {
+        // У NDJSON нет заголовка, файлы можно объединять простой склейкой
+    }
+
+    @Override
+    public RecordWriter open(Writer out) {
+        JsonGenerator generator = createGenerator(out);
+        return new RecordWriter() {
+            @Override
+            public void write(TestCase testCase) throws IOException {
+                writeTestCase(generator, testCase);
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    /**
+     * Записывает тест-кейс объектом JSON и переводом строки и передает его получателю.
+     */
+    private void writeTestCase(JsonGenerator generator, TestCase testCase) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", testCase.getName());
+        generator.writeStringField("fullName", testCase.getFullName());
+        generator.writeStringField("precondition", testCase.getPrecondition());
+        generator.writeStringField("expectedResult", testCase.getFinalExpectedResult());
+        generator.writeArrayFieldStart("steps");
+        for (Step step : testCase.getSteps()) {
+            writeStep(generator, step);
+        }
+        generator.writeEndArray();
+        generator.writeRaw(metadataFields);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    /**
+     * Записывает шаг: тип, текст, подшаги и ожидаемые результаты.
+     */
+    private static void writeStep(JsonGenerator generator, Step step) throws IOException {
+        generator.writeStartObject();
+        StepAttributes attributes = step.getAttributes();
+        if (attributes != null) {
+            if (attributes.getEvent() != null) {
+                writeText(generator, "event", attributes.getEvent());
+            } else if (attributes.getRequest() != null) {
+                writeText(generator, "request", attributes.getRequest());
+            } else if (attributes.getQuestion() != null) {
+                writeText(generator, "question", attributes.getQuestion());
+            }
+        }
+        if (step.hasSubSteps()) {
+            generator.writeArrayFieldStart("subSteps");
+            for (TextSlice subStep : step.getSubSteps()) {
+                generator.writeString(subStep.toString());
+            }
+            generator.writeEndArray();
+        }
+        generator.writeArrayFieldStart("expectedResults");
+        for (ExpectedResult result : step.getExpectedResults()) {
+            writeExpectedResult(generator, result);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeText(JsonGenerator generator, String type, TextSlice text) throws IOException {
+        generator.writeStringField("type", type);
+        generator.writeStringField("text", text.toString());
+    }
+
+    /**
+     * Записывает ожидаемый результат только с заполненными полями:
+     * state и botResponse для &lt;a&gt;, field и value для &lt;responseData&gt;.
+     */
+    private static void writeExpectedResult(JsonGenerator generator, ExpectedResult result) throws IOException {
+        generator.writeStartObject();
+        if (result.getField() != null) {
+            generator.writeStringField("field", result.getField());
+            if (result.getFieldValue() != null) {
+                generator.writeStringField("value", result.getFieldValue().toString());
+            }
+        } else {
+            if (result.getState() != null && !result.getState().isEmpty()) {
+                generator.writeStringField("state", result.getState());
+            }
+            if (result.getBotResponse() != null) {
+                generator.writeStringField("botResponse", result.getBotResponse().toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Сериализует поля метаданных в фрагмент вида {@code ,"tag":"...","link":"..."}.
+     */
+    private static String serializeMetadata(MetadataColumns metadata) {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            String[] values = metadata.values();
+            generator.writeStartObject();
+            for (int i = 0; i < METADATA_FIELDS.size(); i++) {
+                generator.writeStringField(METADATA_FIELDS.get(i), values[i]);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // StringWriter не выбрасывает IOException
+            throw new UncheckedIOException(e);
+        }
+        String object = json.toString();
+        return "," + object.substring(1, object.length() - 1);
+    }
+
+    /**
+     * Создает генератор, который не вставляет разделитель между корневыми объектами:
+     * записи разделяются переводом строки.
+     */
+    private static JsonGenerator createGenerator(Writer out) {
+        try {
+            JsonGenerator generator = jsonFactory.createGenerator(out);
+            generator.setRootValueSeparator(null);
+            return generator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
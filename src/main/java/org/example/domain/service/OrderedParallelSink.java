@@ -0,0 +1,107 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TestCase;
+import org.example.exception.ConversionException;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Получатель тест-кейсов, который форматирует записи параллельно в пуле потоков,
+ * а записывает их строго в порядке документа. Число одновременно обрабатываемых
+ * тест-кейсов ограничено окном, поэтому память не растет с размером файла.
+ * Готовые строки из хранилища встают в ту же очередь и не занимают пул.
+ */
+final class OrderedParallelSink implements TestCaseSink {
+    private final ConversionWorkerPool pool;
+    private final Writer writer;
+    private final OutputWriter output;
+    private final TestCaseRowStore rowStore;
+    private final Deque<Future<String>> pending = new ArrayDeque<>();
+
+    /**
+     * Создает получатель.
+     *
+     * @param pool пул потоков
+     * @param writer получатель записей
+     * @param output формат результата
+     * @param rowStore хранилище готовых записей
+     */
+    OrderedParallelSink(ConversionWorkerPool pool, Writer writer, OutputWriter output, TestCaseRowStore rowStore) {
+        this.pool = pool;
+        this.writer = writer;
+        this.output = output;
+        this.rowStore = rowStore;
+    }
+
+    @Override
+    public void accept(TestCase testCase, String rowKey) throws IOException {
+        if (pending.size() >= pool.getMaxInFlight()) {
+            writeNext();
+        }
+        pending.add(pool.submit(() -> {
+            CharArrayWriter row = new CharArrayWriter(512);
+            try (OutputWriter.RecordWriter recordWriter = output.open(row)) {
+                recordWriter.write(testCase);
+            }
+            String rendered = row.toString();
+            if (rowKey != null) {
+                rowStore.put(rowKey, rendered);
+            }
+            return rendered;
+        }));
+    }
+
+    @Override
+    public void acceptRow(String row) throws IOException {
+        if (pending.isEmpty()) {
+            writer.write(row);
+            return;
+        }
+        if (pending.size() >= pool.getMaxInFlight()) {
+            writeNext();
+        }
+        pending.add(CompletableFuture.completedFuture(row));
+    }
+
+    @Override
+    public void finish() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    @Override
+    public void close() {
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+    }
+
+    /**
+     * Дожидается самой старой задачи и переносит ее строку в выходной поток.
+     */
+    private void writeNext() throws IOException {
+        Future<String> future = pending.poll();
+        try {
+            writer.write(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConversionException("Конвертация прервана", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new ConversionException("Ошибка при форматировании тест-кейса: " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TestCase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Формат записи результата конвертации, привязанный к параметрам одной конвертации.
+ * Отвязывает движки чтения и получателей тест-кейсов от конкретного формата:
+ * получатели работают только с записями тест-кейсов, а начало файла пишет сам формат.
+ */
+interface OutputWriter {
+
+    /**
+     * Записывает начало файла результата перед записями тест-кейсов.
+     * Выходной поток не закрывается.
+     *
+     * @param outputStream поток для записи результата
+     * @throws IOException при ошибках записи
+     */
+    void writeHeader(OutputStream outputStream) throws IOException;
+
+    /**
+     * Создает писатель записей тест-кейсов поверх указанного получателя.
+     * Писатель не потокобезопасен, для каждого получателя создается свой.
+     *
+     * @param out получатель символов
+     * @return писатель записей
+     */
+    RecordWriter open(Writer out);
+
+    /**
+     * Запись тест-кейсов в получатель.
+     * Закрытие освобождает буферы писателя, но не закрывает сам получатель.
+     */
+    @FunctionalInterface
+    interface RecordWriter extends Closeable {
+        /**
+         * Записывает тест-кейс одной записью, включая перевод строки.
+         * После вызова запись целиком передана получателю.
+         *
+         * @param testCase тест-кейс
+         * @throws IOException при ошибках записи
+         */
+        void write(TestCase testCase) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package org.example.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.config.ConverterProperties;
+import org.example.dto.ConversionParams;
+import org.example.dto.OutputFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Кэш готовых CSV по содержимому запроса.
+ * Ключ — SHA-256 от байтов XML, полей {@link ConversionParams}, влияющих на результат,
+ * формата CSV и версии формата вывода. Режим и параллельность на результат не влияют
+ * и в ключ не входят. Результаты хранятся в памяти в пределах бюджета в байтах.
+ * Если задан каталог на диске, вытесненные из памяти и слишком большие для памяти
+ * результаты сохраняются туда с расширением своего формата и переживают перезапуск приложения.
+ * Память и диск вытесняют давно не читавшиеся результаты.
+ */
+@Component
+public class ResultCache implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    /**
+     * Версия формата вывода. Увеличивается при изменении CSV, чтобы старые
+     * результаты на диске не отдавались после обновления.
+     */
+    private static final String OUTPUT_VERSION = "2";
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final String formatFingerprint;
+    private final Cache<String, CachedResult> memory;
+    private final DiskStore disk;
+
+    /**
+     * Создает кэш по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     * @param csvFormat формат CSV, входит в ключ
+     */
+    public ResultCache(ConverterProperties properties, CsvFormat csvFormat) {
+        ConverterProperties.ResultCache cacheProperties = properties.getResultCache();
+        this.enabled = cacheProperties.isEnabled();
+        this.maxEntryBytes = cacheProperties.getMaxEntrySize().toBytes();
+        this.formatFingerprint = csvFormat.getDelimiter() + "|" + csvFormat.getQuote() + "|" + csvFormat.getLineSeparator();
+        this.disk = enabled && cacheProperties.getDiskDir() != null
+            ? new DiskStore(cacheProperties.getDiskDir(), cacheProperties.getDiskMaxSize().toBytes())
+            : null;
+        this.memory = Caffeine.newBuilder()
+            .maximumWeight(cacheProperties.getMaxSize().toBytes())
+            .<String, CachedResult>weigher((key, value) -> value.bytes().length)
+            .removalListener(this::onRemoval)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Проверяет, включен ли кэш.
+     *
+     * @return true если результаты кэшируются
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Вычисляет ключ кэша. Источник XML читается целиком.
+     *
+     * @param source источник XML данных
+     * @param params параметры конвертации
+     * @return ключ в шестнадцатеричном виде
+     * @throws IOException при ошибках чтения источника
+     */
+    public String key(InputStreamSource source, ConversionParams params) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = source.getInputStream()) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        for (String field : new String[] {
+            OUTPUT_VERSION, params.getFormat().name(), formatFingerprint,
+            params.getTag(), params.getLink(), params.getParameter(), params.getLead(), params.getOwner(),
+            params.getSuite(), params.getComponent(), params.getStory(), params.getFeature(), params.getEpic(),
+            params.getFileName()
+        }) {
+            updateField(digest, field);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Ищет готовый результат в памяти, затем на диске.
+     * Файл с диска открывается сразу, поэтому одновременное вытеснение не мешает
+     * его прочитать. Такой результат читается один раз и реализует {@link Closeable}:
+     * если его не прочитают, вызывающий код должен его закрыть.
+     *
+     * @param key ключ кэша
+     * @return CSV файл, если он есть в кэше
+     */
+    public Optional<Resource> get(String key) {
+        CachedResult cached = memory.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(new ByteArrayResource(cached.bytes()));
+        }
+        if (disk != null) {
+            return disk.get(key);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Оборачивает выходной поток так, чтобы записанный CSV сохранялся в кэш.
+     * Результат попадает в кэш только после {@link Capture#commit()}, то есть
+     * после успешной конвертации.
+     *
+     * @param key ключ кэша
+     * @param format формат результата, задает расширение файла на диске
+     * @param out поток ответа
+     * @return поток, дублирующий запись в кэш
+     */
+    public Capture capture(String key, OutputFormat format, OutputStream out) {
+        return new Capture(key, format, out);
+    }
+
+    /**
+     * Сохраняет в кэш готовый результат из файла. Результат не больше максимального
+     * размера записи читается в память. Больший файл забирает дисковый кэш: если каталог
+     * кэша на той же файловой системе, файл переименовывается без копирования.
+     * Без дискового кэша большой результат не сохраняется. После вызова файла может
+     * не быть по исходному пути, поток, открытый до вызова, читает его дальше.
+     *
+     * @param key ключ кэша
+     * @param format формат результата
+     * @param file файл с результатом успешной конвертации
+     */
+    public void put(String key, OutputFormat format, Path file) {
+        try {
+            long size = Files.size(file);
+            if (size <= maxEntryBytes) {
+                memory.put(key, new CachedResult(Files.readAllBytes(file), format));
+            } else if (disk != null) {
+                disk.adopt(key, format, file);
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось сохранить результат {} в кэш", key, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, memory, "conversion-result");
+        if (disk != null) {
+            Gauge.builder("converter.result-cache.disk.size", disk, DiskStore::totalBytes)
+                .description("Размер результатов конвертации на диске")
+                .baseUnit("bytes")
+                .register(registry);
+        }
+    }
+
+    /**
+     * Переносит вытесненные по размеру результаты на диск.
+     */
+    private void onRemoval(String key, CachedResult value, RemovalCause cause) {
+        if (disk != null && cause == RemovalCause.SIZE && key != null && value != null) {
+            disk.put(key, value.format(), value.bytes());
+        }
+    }
+
+    private static void updateField(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Поток, передающий запись дальше и сохраняющий копию для кэша.
+     * Копия держится в памяти, пока не превысит максимальный размер записи.
+     * Дальше она продолжается во временном файле на диске, а без дискового кэша отбрасывается.
+     */
+    public final class Capture extends FilterOutputStream {
+        private final String key;
+        private final OutputFormat format;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+        private Path spillFile;
+        private OutputStream spill;
+        private boolean abandoned;
+
+        private Capture(String key, OutputFormat format, OutputStream out) {
+            super(out);
+            this.key = key;
+            this.format = format;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy(b, off, len);
+        }
+
+        /**
+         * Сохраняет записанный результат в кэш.
+         */
+        public void commit() {
+            if (abandoned) {
+                return;
+            }
+            if (buffer != null) {
+                memory.put(key, new CachedResult(buffer.toByteArray(), format));
+                buffer = null;
+                return;
+            }
+            try {
+                spill.close();
+                disk.move(key, format, spillFile);
+            } catch (IOException e) {
+                logger.warn("Не удалось сохранить результат {} в кэш на диске", key, e);
+                abandon();
+            }
+        }
+
+        /**
+         * Отменяет сохранение результата и удаляет временный файл.
+         * Вызывается при ошибке конвертации.
+         */
+        public void abandon() {
+            abandoned = true;
+            buffer = null;
+            if (spill != null) {
+                try {
+                    spill.close();
+                    Files.deleteIfExists(spillFile);
+                } catch (IOException e) {
+                    logger.warn("Не удалось удалить временный файл кэша {}", spillFile, e);
+                }
+            }
+        }
+
+        /**
+         * Поток ответа не закрывается вместе с копией.
+         */
+        @Override
+        public void close() {
+        }
+
+        private void copy(byte[] b, int off, int len) throws IOException {
+            if (abandoned) {
+                return;
+            }
+            if (buffer != null) {
+                if (buffer.size() + len <= maxEntryBytes) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                if (disk == null) {
+                    abandon();
+                    return;
+                }
+                spillFile = disk.createTempFile();
+                spill = Files.newOutputStream(spillFile);
+                buffer.writeTo(spill);
+                buffer = null;
+            }
+            spill.write(b, off, len);
+        }
+    }
+
+    /**
+     * Результат в памяти вместе с форматом, который нужен при переносе на диск.
+     */
+    private record CachedResult(byte[] bytes, OutputFormat format) {
+    }
+
+    /**
+     * Хранилище результатов на диске с ограничением суммарного размера.
+     * Имя файла — ключ и расширение формата результата. При превышении размера
+     * удаляются файлы, которые дольше всех не читались. Файлы, оставшиеся
+     * с прошлого запуска, учитываются при создании.
+     */
+    private static final class DiskStore {
+        private static final Set<String> EXTENSIONS = Stream.of(OutputFormat.values())
+            .map(OutputFormat::getExtension)
+            .collect(Collectors.toUnmodifiableSet());
+
+        private final Path dir;
+        private final long maxBytes;
+        /** Файлы в порядке обращения: первым идет дольше всех не читавшийся */
+        private final LinkedHashMap<String, DiskEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long totalBytes;
+
+        DiskStore(Path dir, long maxBytes) {
+            this.dir = dir;
+            this.maxBytes = maxBytes;
+            try {
+                Files.createDirectories(dir);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        int dot = name.lastIndexOf('.');
+                        if (dot > 0 && EXTENSIONS.contains(name.substring(dot + 1))) {
+                            register(name.substring(0, dot), new DiskEntry(name.substring(dot + 1), Files.size(file)));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Не удалось открыть каталог кэша " + dir, e);
+            }
+        }
+
+        /**
+         * Открывает файл результата под блокировкой, чтобы его не удалили между
+         * поиском и чтением. Поиск переносит файл в конец очереди вытеснения.
+         * Удаленный извне файл считается промахом.
+         */
+        synchronized Optional<Resource> get(String key) {
+            DiskEntry entry = entries.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            Path file = file(key, entry);
+            try {
+                return Optional.of(new OpenedFileResource(file, FileChannel.open(file, StandardOpenOption.READ), entry.size()));
+            } catch (NoSuchFileException e) {
+                entries.remove(key);
+                totalBytes -= entry.size();
+                return Optional.empty();
+            } catch (IOException e) {
+                logger.warn("Не удалось открыть файл кэша {}", file, e);
+                return Optional.empty();
+            }
+        }
+
+        void put(String key, OutputFormat format, byte[] value) {
+            try {
+                Path temp = createTempFile();
+                Files.write(temp, value);
+                move(key, format, temp);
+            } catch (IOException e) {
+                logger.warn("Не удалось сохранить результат {} в кэш на диске", key, e);
+            }
+        }
+
+        /**
+         * Забирает файл результата в хранилище. Файл с другой файловой системы копируется.
+         */
+        void adopt(String key, OutputFormat format, Path file) throws IOException {
+            try {
+                move(key, format, file);
+            } catch (AtomicMoveNotSupportedException e) {
+                Path temp = createTempFile();
+                try {
+                    Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                    move(key, format, temp);
+                } catch (IOException copyError) {
+                    Files.deleteIfExists(temp);
+                    throw copyError;
+                }
+            }
+        }
+
+        Path createTempFile() throws IOException {
+            return Files.createTempFile(dir, "capture-", ".tmp");
+        }
+
+        synchronized void move(String key, OutputFormat format, Path temp) throws IOException {
+            DiskEntry entry = new DiskEntry(format.getExtension(), Files.size(temp));
+            Files.move(temp, file(key, entry), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            DiskEntry previous = entries.remove(key);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            register(key, entry);
+            evict();
+        }
+
+        synchronized long totalBytes() {
+            return totalBytes;
+        }
+
+        private void register(String key, DiskEntry entry) {
+            entries.put(key, entry);
+            totalBytes += entry.size();
+        }
+
+        private void evict() {
+            Iterator<Map.Entry<String, DiskEntry>> oldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && oldest.hasNext()) {
+                Map.Entry<String, DiskEntry> entry = oldest.next();
+                try {
+                    Files.deleteIfExists(file(entry.getKey(), entry.getValue()));
+                } catch (IOException e) {
+                    logger.warn("Не удалось удалить файл кэша {}", entry.getKey(), e);
+                }
+                totalBytes -= entry.getValue().size();
+                oldest.remove();
+            }
+        }
+
+        private Path file(String key, DiskEntry entry) {
+            return dir.resolve(key + "." + entry.extension());
+        }
+    }
+
+    /**
+     * Файл результата на диске: расширение формата и размер в байтах.
+     */
+    private record DiskEntry(String extension, long size) {
+    }
+
+    /**
+     * Результат на диске, открытый при поиске. Открытый файл остается доступен для чтения,
+     * даже если его удалят при вытеснении. Поток можно получить один раз,
+     * его закрытие закрывает файл. Если поток так и не прочитают, файл закрывает
+     * {@link #close()}, повторное закрытие ничего не делает.
+     */
+    private static final class OpenedFileResource extends AbstractResource implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+
+        OpenedFileResource(Path file, FileChannel channel, long size) {
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached result [" + file + "]";
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return Channels.newInputStream(channel);
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
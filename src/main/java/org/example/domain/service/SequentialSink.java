@@ -0,0 +1,63 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TestCase;
+import org.example.domain.service.OutputWriter.RecordWriter;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Получатель тест-кейсов, который записывает записи в вызывающем потоке.
+ * Записи, которые нужно сохранить в хранилище, сначала собираются в буфере.
+ */
+final class SequentialSink implements TestCaseSink {
+    private final Writer writer;
+    private final RecordWriter direct;
+    private final TestCaseRowStore rowStore;
+    private final CharArrayWriter row = new CharArrayWriter(512);
+    private final RecordWriter buffered;
+
+    /**
+     * Создает получатель.
+     *
+     * @param writer получатель записей
+     * @param output формат результата
+     * @param rowStore хранилище готовых записей
+     */
+    SequentialSink(Writer writer, OutputWriter output, TestCaseRowStore rowStore) {
+        this.writer = writer;
+        this.direct = output.open(writer);
+        this.rowStore = rowStore;
+        this.buffered = output.open(row);
+    }
+
+    @Override
+    public void accept(TestCase testCase, String rowKey) throws IOException {
+        if (rowKey == null) {
+            direct.write(testCase);
+            return;
+        }
+        row.reset();
+        buffered.write(testCase);
+        String rendered = row.toString();
+        rowStore.put(rowKey, rendered);
+        writer.write(rendered);
+    }
+
+    @Override
+    public void acceptRow(String renderedRow) throws IOException {
+        writer.write(renderedRow);
+    }
+
+    @Override
+    public void close() {
+        try {
+            direct.close();
+            buffered.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
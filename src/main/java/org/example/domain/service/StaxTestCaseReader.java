@@ -0,0 +1,321 @@
+package org.example.domain.service;
+
+import org.example.domain.model.MockData;
+import org.example.domain.model.Step;
+import org.example.domain.model.TestCase;
+import org.example.domain.model.TextSlice;
+import org.example.domain.model.attributes.ExpectedResultAttributes;
+import org.example.domain.model.attributes.StepAttributes;
+import org.example.exception.XmlValidationException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый читатель тест-кейсов на основе StAX.
+ * Читает элементы &lt;test-case&gt; по одному и собирает из каждого объект {@link TestCase},
+ * не строя DOM всего документа. Одновременно с чтением проверяет каждый тест-кейс,
+ * поэтому отдельный проход валидации не нужен. Если задан отпечаток, в том же проходе
+ * для каждого тест-кейса вычисляется ключ его строки в {@link TestCaseRowStore}.
+ * Текст элементов копируется из буфера парсера в {@link TextBuffer} тест-кейса один раз,
+ * шаги и ожидаемые результаты ссылаются на него срезами.
+ */
+final class StaxTestCaseReader implements AutoCloseable {
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final XMLStreamReader reader;
+    private final TestCaseValidator validator;
+    private final TestCaseFingerprint fingerprint;
+    private boolean rootChecked;
+    private String rowKey;
+    private TextBuffer text;
+
+    /**
+     * Создает читатель для указанного потока.
+     *
+     * @param inputStream поток с XML данными
+     * @param validator накопитель ошибок валидации
+     * @param fingerprint отпечаток для ключей строк или null, если ключи не нужны
+     * @throws XMLStreamException если поток не удалось открыть как XML
+     */
+    StaxTestCaseReader(InputStream inputStream, TestCaseValidator validator, TestCaseFingerprint fingerprint)
+            throws XMLStreamException {
+        this.reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        this.validator = validator;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Читает следующий тест-кейс из потока.
+     *
+     * @return очередной тест-кейс или null, если документ закончился
+     * @throws XMLStreamException при ошибках чтения XML
+     * @throws XmlValidationException если корневой элемент не &lt;test&gt; или документ содержит DOCTYPE
+     */
+    TestCase next() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.DTD) {
+                throw new XmlValidationException("Некорректный XML: объявление DOCTYPE не поддерживается");
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+
+            String nodeName = nodeName();
+            if (!rootChecked) {
+                rootChecked = true;
+                TestCaseValidator.validateRoot(nodeName);
+                continue;
+            }
+
+            if ("test-case".equals(nodeName)) {
+                fingerprintStartElement(nodeName);
+                return readTestCase();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает ключ строки последнего прочитанного тест-кейса.
+     *
+     * @return id и отпечаток содержимого тест-кейса или null, если отпечаток не задан
+     */
+    String rowKey() {
+        return rowKey;
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        reader.close();
+    }
+
+    /**
+     * Читает содержимое текущего элемента &lt;test-case&gt; до его закрывающего тега.
+     *
+     * @return объект тест-кейса
+     * @throws XMLStreamException при ошибках чтения XML
+     */
+    private TestCase readTestCase() throws XMLStreamException {
+        String id = attribute("id");
+        StepListBuilder steps = new StepListBuilder();
+        List<MockData> mocks = new ArrayList<>();
+        List<TextCapture> captures = new ArrayList<>();
+        MockDataCapture mock = null;
+        int depth = 0;
+        text = new TextBuffer();
+
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    String nodeName = nodeName();
+                    fingerprintStartElement(nodeName);
+                    if (depth == 1) {
+                        startChildCapture(nodeName, depth, steps, captures);
+                    }
+                    if (mock != null) {
+                        mock.onStartElement(nodeName, depth, captures);
+                    } else if ("mockData".equals(nodeName)) {
+                        mock = new MockDataCapture(depth);
+                    }
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (!captures.isEmpty()) {
+                        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                    if (fingerprint != null) {
+                        fingerprint.text(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (fingerprint != null) {
+                        fingerprint.endElement();
+                    }
+                    if (depth == 0) {
+                        List<Step> builtSteps = steps.build();
+                        validator.validateTestCase(id, !builtSteps.isEmpty());
+                        rowKey = fingerprint != null ? fingerprint.finish(id) : null;
+                        return XmlToCsvConverter.buildTestCase(id, mocks, builtSteps);
+                    }
+                    finishCaptures(depth, captures);
+                    if (mock != null) {
+                        if (mock.depth == depth) {
+                            mocks.add(mock.build());
+                            mock = null;
+                        } else {
+                            mock.onEndElement(depth);
+                        }
+                    }
+                    depth--;
+                }
+                default -> {
+                    // Комментарии и инструкции обработки не влияют на содержимое
+                }
+            }
+        }
+        throw new XMLStreamException("Неожиданный конец документа внутри <test-case>");
+    }
+
+    /**
+     * Начинает захват текста прямого потомка тест-кейса, если он является шагом или результатом.
+     * Остальные элементы не извлекаются.
+     */
+    private void startChildCapture(String nodeName, int depth, StepListBuilder steps, List<TextCapture> captures) {
+        if (StepAttributes.isStepNode(nodeName)) {
+            captures.add(new TextCapture(depth, value -> steps.addStep(nodeName, value)));
+        } else if (ExpectedResultAttributes.isResultNode(nodeName) && steps.hasCurrentStep()) {
+            String state = attribute("state");
+            String field = attribute("field");
+            captures.add(new TextCapture(depth, value ->
+                steps.addResult(ExpectedResultAttributes.fromValues(nodeName, value, state, field))));
+        }
+    }
+
+    /**
+     * Завершает захваты текста, открытые на указанной глубине.
+     * Каждый захват получает срез общего буфера без пробельных символов по краям.
+     */
+    private void finishCaptures(int depth, List<TextCapture> captures) {
+        for (int i = captures.size() - 1; i >= 0; i--) {
+            TextCapture capture = captures.get(i);
+            if (capture.depth == depth) {
+                captures.remove(i);
+                capture.onEnd.accept(text.trimmedSlice(capture.start, text.length()));
+            }
+        }
+    }
+
+    /**
+     * Передает в отпечаток открывающий тег текущего элемента вместе с атрибутами.
+     */
+    private void fingerprintStartElement(String nodeName) {
+        if (fingerprint != null) {
+            fingerprint.startElement(nodeName, reader.getAttributeCount(), this::attributeName, reader::getAttributeValue);
+        }
+    }
+
+    /**
+     * Возвращает имя атрибута текущего элемента с префиксом, как его возвращает DOM.
+     */
+    private String attributeName(int index) {
+        String prefix = reader.getAttributePrefix(index);
+        String localName = reader.getAttributeLocalName(index);
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * Возвращает имя текущего элемента с префиксом, как его возвращает DOM без поддержки пространств имен.
+     */
+    private String nodeName() {
+        String prefix = reader.getPrefix();
+        String localName = reader.getLocalName();
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * Возвращает значение атрибута текущего элемента или пустую строку, как DOM.
+     */
+    private String attribute(String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Создает фабрику с теми же ограничениями, что и пул DOM парсеров:
+     * DTD не обрабатываются, внешние DTD и сущности не загружаются.
+     * Документ с DOCTYPE отклоняется в {@link #next()}, как и DOM парсером,
+     * поэтому результат не зависит от режима конвертации.
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        if (factory.isPropertySupported(XMLConstants.ACCESS_EXTERNAL_DTD)) {
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        }
+        return factory;
+    }
+
+    /**
+     * Захват текстового содержимого элемента вместе со всеми потомками.
+     * Пока открыт хотя бы один захват, текст дописывается в общий буфер тест-кейса,
+     * поэтому содержимое элемента занимает в нем непрерывный диапазон от начала захвата.
+     */
+    private final class TextCapture {
+        private final int depth;
+        private final int start;
+        private final Consumer<TextSlice> onEnd;
+
+        private TextCapture(int depth, Consumer<TextSlice> onEnd) {
+            this.depth = depth;
+            this.start = text.length();
+            this.onEnd = onEnd;
+        }
+    }
+
+    /**
+     * Накопитель данных одного элемента &lt;mockData&gt;.
+     * Как и в DOM режиме, используются первые найденные &lt;query&gt;, &lt;response&gt; и &lt;parameters&gt;.
+     */
+    private final class MockDataCapture {
+        private final int depth;
+        private final MockData.MockDataBuilder builder = MockData.builder();
+        private final List<MockData.Parameter> parameters = new ArrayList<>();
+        private boolean hasQuery;
+        private boolean hasResponse;
+        private int parametersDepth = -1;
+
+        private MockDataCapture(int depth) {
+            this.depth = depth;
+        }
+
+        private void onStartElement(String nodeName, int elementDepth, List<TextCapture> captures) {
+            if (parametersDepth > 0 && elementDepth == parametersDepth + 1) {
+                captures.add(new TextCapture(elementDepth,
+                    value -> parameters.add(new MockData.Parameter(nodeName, value.toString()))));
+            }
+
+            switch (nodeName) {
+                case "query" -> {
+                    if (!hasQuery) {
+                        hasQuery = true;
+                        builder.method(attribute("method"));
+                        captures.add(new TextCapture(elementDepth, value -> builder.url(value.toString())));
+                    }
+                }
+                case "response" -> {
+                    if (!hasResponse) {
+                        hasResponse = true;
+                        builder.status(attribute("status"));
+                        captures.add(new TextCapture(elementDepth, value -> builder.responseBody(value.toString())));
+                    }
+                }
+                case "parameters" -> {
+                    if (parametersDepth < 0) {
+                        parametersDepth = elementDepth;
+                    }
+                }
+                default -> {
+                    // Прочие элементы мока не используются
+                }
+            }
+        }
+
+        private void onEndElement(int elementDepth) {
+            if (elementDepth == parametersDepth) {
+                parametersDepth = 0;
+            }
+        }
+
+        private MockData build() {
+            return builder.parameters(parameters).build();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.domain.service;
+
+import org.example.domain.model.Step;
+import org.example.domain.model.TextSlice;
+import org.example.domain.model.attributes.ExpectedResult;
+import org.example.domain.model.attributes.ExpectedResultAttributes;
+import org.example.domain.model.attributes.StepAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Собирает список шагов тест-кейса из последовательности дочерних узлов.
+ * Каждый узел шага начинает новый шаг, узлы результатов добавляют
+ * ожидаемые результаты к текущему шагу. Используется обоими движками
+ * конвертации, чтобы правила сборки шагов не расходились.
+ */
+final class StepListBuilder {
+    private final List<Step> steps = new ArrayList<>();
+    private Step.StepBuilder currentStep;
+    private List<ExpectedResult> currentExpectedResults = new ArrayList<>();
+
+    /**
+     * Начинает новый шаг, завершая предыдущий.
+     *
+     * @param nodeName имя узла шага
+     * @param text текстовое содержимое узла без пробелов по краям
+     */
+    void addStep(String nodeName, TextSlice text) {
+        finishCurrentStep();
+
+        StepAttributes attributes = StepAttributes.fromNodeName(nodeName, text);
+        currentStep = Step.builder().attributes(attributes);
+        if (attributes.hasSubSteps()) {
+            currentStep.subSteps(List.of(attributes.getSubSteps()));
+        }
+        currentExpectedResults = new ArrayList<>();
+    }
+
+    /**
+     * Добавляет ожидаемые результаты к текущему шагу.
+     * Результаты до первого шага игнорируются.
+     *
+     * @param resultAttributes атрибуты ожидаемого результата
+     */
+    void addResult(ExpectedResultAttributes resultAttributes) {
+        if (currentStep != null) {
+            currentExpectedResults.addAll(resultAttributes.getResults());
+        }
+    }
+
+    /**
+     * Проверяет, начат ли хотя бы один шаг.
+     *
+     * @return true если есть текущий шаг
+     */
+    boolean hasCurrentStep() {
+        return currentStep != null;
+    }
+
+    /**
+     * Завершает последний шаг и возвращает собранный список.
+     *
+     * @return список шагов тест-кейса
+     */
+    List<Step> build() {
+        finishCurrentStep();
+        currentStep = null;
+        return steps;
+    }
+
+    private void finishCurrentStep() {
+        if (currentStep != null) {
+            currentStep.expectedResults(currentExpectedResults);
+            steps.add(currentStep.build());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.domain.service;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.function.IntFunction;
+
+/**
+ * Отпечаток содержимого элемента &lt;test-case&gt;.
+ * Хэш SHA-256 считается по элементам, атрибутам и тексту всего поддерева и по параметрам
+ * конвертации, комментарии не учитываются. DOM и потоковый режимы дают одинаковый отпечаток
+ * для одного и того же тест-кейса: атрибуты учитываются в порядке имен, а текст — без учета
+ * того, на сколько фрагментов его разбил парсер. Используется одним потоком.
+ */
+final class TestCaseFingerprint {
+    /**
+     * Начало служебной записи. Символ U+0000 недопустим в XML, поэтому
+     * служебные записи нельзя спутать с текстом.
+     */
+    private static final char MARK = '\u0000';
+    private static final char START = 'S';
+    private static final char ATTRIBUTE = 'A';
+    private static final char END = 'E';
+
+    private final MessageDigest digest;
+    private final byte[] seed;
+    private final byte[] buffer = new byte[4096];
+    private int position;
+
+    /**
+     * Создает отпечаток.
+     *
+     * @param digest алгоритм хэширования
+     * @param seed хэш параметров конвертации, входит в каждый отпечаток
+     */
+    TestCaseFingerprint(MessageDigest digest, byte[] seed) {
+        this.digest = digest;
+        this.seed = seed;
+        digest.update(seed);
+    }
+
+    /**
+     * Учитывает элемент вместе со всем поддеревом DOM.
+     *
+     * @param element элемент
+     */
+    void element(Element element) {
+        NamedNodeMap attributes = element.getAttributes();
+        Attr[] declared = new Attr[attributes.getLength()];
+        int count = 0;
+        for (int i = 0; i < declared.length; i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            String name = attribute.getName();
+            // Потоковый парсер не возвращает объявления пространств имен как атрибуты
+            if (!name.equals("xmlns") && !name.startsWith("xmlns:")) {
+                declared[count++] = attribute;
+            }
+        }
+        int attributeCount = count;
+        startElement(element.getNodeName(), attributeCount,
+            i -> declared[i].getName(), i -> declared[i].getValue());
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement) {
+                element(childElement);
+            } else if (child instanceof Text text) {
+                text(text.getData());
+            }
+        }
+        endElement();
+    }
+
+    /**
+     * Учитывает открывающий тег элемента и его атрибуты.
+     *
+     * @param name имя элемента
+     * @param attributeCount число атрибутов
+     * @param attributeName имя атрибута по индексу
+     * @param attributeValue значение атрибута по индексу
+     */
+    void startElement(String name, int attributeCount,
+                      IntFunction<String> attributeName, IntFunction<String> attributeValue) {
+        record(START);
+        string(name);
+        if (attributeCount == 1) {
+            attribute(attributeName.apply(0), attributeValue.apply(0));
+        } else if (attributeCount > 1) {
+            Integer[] order = new Integer[attributeCount];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.comparing(attributeName::apply));
+            for (int index : order) {
+                attribute(attributeName.apply(index), attributeValue.apply(index));
+            }
+        }
+    }
+
+    /**
+     * Учитывает фрагмент текста.
+     *
+     * @param chars массив символов
+     * @param start начало фрагмента
+     * @param length длина фрагмента
+     */
+    void text(char[] chars, int start, int length) {
+        for (int i = start, end = start + length; i < end; i++) {
+            put(chars[i]);
+        }
+    }
+
+    /**
+     * Учитывает закрывающий тег элемента.
+     */
+    void endElement() {
+        record(END);
+    }
+
+    /**
+     * Завершает отпечаток тест-кейса и готовит объект к следующему.
+     *
+     * @param id значение атрибута id тест-кейса
+     * @return ключ строки CSV: идентификатор и хэш содержимого
+     */
+    String finish(String id) {
+        flush();
+        String key = id + ":" + HexFormat.of().formatHex(digest.digest());
+        digest.update(seed);
+        return key;
+    }
+
+    private void text(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            put(value.charAt(i));
+        }
+    }
+
+    private void attribute(String name, String value) {
+        record(ATTRIBUTE);
+        string(name);
+        string(value);
+    }
+
+    private void record(char type) {
+        put(MARK);
+        put(type);
+    }
+
+    /**
+     * Записывает строку с длиной, чтобы соседние имена и значения не сливались.
+     */
+    private void string(String value) {
+        put((char) (value.length() >>> 16));
+        put((char) value.length());
+        text(value);
+    }
+
+    private void put(char c) {
+        if (position + 2 > buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) (c >>> 8);
+        buffer[position++] = (byte) c;
+    }
+
+    private void flush() {
+        digest.update(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.config.ConverterProperties;
+import org.example.dto.ConversionParams;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Хранилище готовых строк CSV отдельных тест-кейсов.
+ * Ключ строки — id тест-кейса и отпечаток {@link TestCaseFingerprint} его содержимого
+ * вместе с параметрами конвертации. При повторной конвертации файла, в котором изменилась
+ * часть тест-кейсов, строки неизмененных берутся отсюда без форматирования JSON и CSV.
+ * Хранятся только строки тест-кейсов, прошедших валидацию. Размер ограничен бюджетом памяти.
+ */
+@Component
+public class TestCaseRowStore implements MeterBinder {
+    /**
+     * Версия формата строк. Увеличивается при изменении вывода тест-кейса,
+     * чтобы строки старого формата не переиспользовались.
+     */
+    private static final String ROW_VERSION = "2";
+
+    private final boolean enabled;
+    private final String formatFingerprint;
+    private final Cache<String, String> rows;
+
+    /**
+     * Создает хранилище по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     * @param csvFormat формат CSV, входит в отпечаток
+     */
+    public TestCaseRowStore(ConverterProperties properties, CsvFormat csvFormat) {
+        ConverterProperties.RowStore rowStoreProperties = properties.getRowStore();
+        this.enabled = rowStoreProperties.isEnabled();
+        this.formatFingerprint = csvFormat.getDelimiter() + "|" + csvFormat.getQuote() + "|" + csvFormat.getLineSeparator();
+        this.rows = Caffeine.newBuilder()
+            .maximumWeight(rowStoreProperties.getMaxSize().toBytes())
+            .<String, String>weigher((key, row) -> 2 * (key.length() + row.length()))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Проверяет, включено ли переиспользование строк.
+     *
+     * @return true если строки сохраняются и переиспользуются
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Создает отпечаток для тест-кейсов одной конвертации.
+     *
+     * @param params параметры конвертации
+     * @return отпечаток, учитывающий поля параметров, которые попадают в строку
+     */
+    TestCaseFingerprint newFingerprint(ConversionParams params) {
+        MessageDigest digest = sha256();
+        for (String field : new String[] {
+            ROW_VERSION, params.getFormat().name(), formatFingerprint,
+            params.getTag(), params.getLink(), params.getParameter(), params.getLead(), params.getOwner(),
+            params.getSuite(), params.getComponent(), params.getStory(), params.getFeature(), params.getEpic(),
+            params.getFileName()
+        }) {
+            updateField(digest, field);
+        }
+        return new TestCaseFingerprint(digest, digest.digest());
+    }
+
+    /**
+     * Возвращает сохраненную строку CSV.
+     *
+     * @param key ключ строки
+     * @return строка CSV с переводом строки или null, если ее нет
+     */
+    String get(String key) {
+        return rows.getIfPresent(key);
+    }
+
+    /**
+     * Сохраняет строку CSV тест-кейса.
+     *
+     * @param key ключ строки
+     * @param row строка CSV с переводом строки
+     */
+    void put(String key, String row) {
+        rows.put(key, row);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, rows, "testcase-rows");
+    }
+
+    private static void updateField(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
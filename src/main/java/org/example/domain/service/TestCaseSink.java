@@ -0,0 +1,47 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TestCase;
+
+import java.io.IOException;
+
+/**
+ * Получатель тест-кейсов, прочитанных из XML.
+ * Отвязывает движки чтения (DOM и потоковый) от способа записи строк.
+ * Тест-кейсы и готовые строки из {@link TestCaseRowStore} записываются
+ * в общем порядке следования в документе.
+ */
+interface TestCaseSink extends AutoCloseable {
+
+    /**
+     * Принимает очередной тест-кейс в порядке следования в документе.
+     *
+     * @param testCase тест-кейс
+     * @param rowKey ключ, под которым записанная строка сохраняется в хранилище строк,
+     *               или null, если строку сохранять не нужно
+     * @throws IOException при ошибках записи
+     */
+    void accept(TestCase testCase, String rowKey) throws IOException;
+
+    /**
+     * Принимает готовую запись неизмененного тест-кейса.
+     *
+     * @param row запись в формате результата с переводом строки
+     * @throws IOException при ошибках записи
+     */
+    void acceptRow(String row) throws IOException;
+
+    /**
+     * Дописывает все принятые тест-кейсы. Вызывается после успешного чтения документа.
+     *
+     * @throws IOException при ошибках записи
+     */
+    default void finish() throws IOException {
+    }
+
+    /**
+     * Освобождает ресурсы, в том числе если {@link #finish()} не был вызван из-за ошибки.
+     */
+    @Override
+    default void close() {
+    }
+}
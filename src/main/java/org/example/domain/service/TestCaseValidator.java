@@ -0,0 +1,67 @@
+package org.example.domain.service;
+
+import org.example.exception.XmlValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накопитель ошибок валидации тест-кейсов.
+ * Позволяет проверять документ в том же проходе, в котором строятся модели,
+ * и выбрасывать одно исключение со всеми найденными ошибками.
+ */
+final class TestCaseValidator {
+    private final List<String> errors = new ArrayList<>();
+    private int testCaseCount;
+
+    /**
+     * Проверяет имя корневого элемента документа.
+     *
+     * @param nodeName имя корневого элемента
+     * @throws XmlValidationException если корневой элемент не &lt;test&gt;
+     */
+    static void validateRoot(String nodeName) {
+        if (!"test".equals(nodeName)) {
+            throw new XmlValidationException("Некорректный XML: ожидается корневой элемент <test>, но найден <" + nodeName + ">");
+        }
+    }
+
+    /**
+     * Проверяет отдельный тест-кейс и запоминает найденные ошибки.
+     *
+     * @param id значение атрибута id тест-кейса
+     * @param hasSteps содержит ли тест-кейс хотя бы один шаг
+     */
+    void validateTestCase(String id, boolean hasSteps) {
+        testCaseCount++;
+        if (id.isEmpty()) {
+            errors.add("Test case без ID");
+        }
+        if (!hasSteps) {
+            errors.add("Test case " + id + " не содержит шагов");
+        }
+    }
+
+    /**
+     * Проверяет, найдены ли ошибки в уже проверенных тест-кейсах.
+     *
+     * @return true если документ будет отклонен
+     */
+    boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Завершает валидацию документа.
+     *
+     * @throws XmlValidationException если тест-кейсов нет или найдены ошибки
+     */
+    void throwIfInvalid() {
+        if (testCaseCount == 0) {
+            throw new XmlValidationException("XML не содержит тест-кейсов (<test-case>)");
+        }
+        if (!errors.isEmpty()) {
+            throw new XmlValidationException("Обнаружены ошибки в XML:\n" + String.join("\n", errors));
+        }
+    }
+}
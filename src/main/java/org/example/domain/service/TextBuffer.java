@@ -0,0 +1,71 @@
+package org.example.domain.service;
+
+import org.example.domain.model.TextSlice;
+
+import java.util.Arrays;
+
+/**
+ * Общий буфер текста одного тест-кейса.
+ * Текст шагов и ожидаемых результатов копируется сюда из парсера один раз,
+ * а модели получают {@link TextSlice} на свои диапазоны. Текст вложенных элементов
+ * идет в документе подряд, поэтому диапазон элемента всегда непрерывен.
+ * При росте буфера прежние срезы продолжают ссылаться на старый массив,
+ * символы которого в их диапазонах не меняются. Для каждого тест-кейса создается
+ * новый буфер, так как его срезы живут до записи строки CSV.
+ */
+final class TextBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Возвращает текущую длину текста, используется как начало или конец диапазона.
+     *
+     * @return количество символов в буфере
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Дописывает символы из буфера парсера.
+     *
+     * @param source буфер символов
+     * @param start начало диапазона
+     * @param count количество символов
+     */
+    void append(char[] source, int start, int count) {
+        ensureCapacity(count);
+        System.arraycopy(source, start, chars, length, count);
+        length += count;
+    }
+
+    /**
+     * Дописывает строку.
+     *
+     * @param value строка
+     */
+    void append(String value) {
+        ensureCapacity(value.length());
+        value.getChars(0, value.length(), chars, length);
+        length += value.length();
+    }
+
+    /**
+     * Возвращает текст диапазона без пробельных символов по краям.
+     *
+     * @param start начало диапазона
+     * @param end конец диапазона, не включая
+     * @return срез буфера
+     */
+    TextSlice trimmedSlice(int start, int end) {
+        return TextSlice.of(chars, start, end).trim();
+    }
+
+    private void ensureCapacity(int count) {
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.domain.service;
+
+import org.example.config.ConverterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Временные файлы для больших загрузок и их результатов.
+ * Загрузка больше порога переносится в каталог временных файлов и читается конвертером
+ * через отображение в память, без копии в heap. Результат такой конвертации сначала
+ * пишется в файл через файловый канал и затем копируется клиенту небольшим буфером,
+ * поэтому ресурсы конвертации освобождаются, не дожидаясь медленного клиента.
+ */
+@Component
+public class UploadSpool {
+    private static final Logger logger = LoggerFactory.getLogger(UploadSpool.class);
+
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    private final long threshold;
+    private final Path directory;
+
+    /**
+     * Создает хранилище по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     */
+    public UploadSpool(ConverterProperties properties) {
+        ConverterProperties.Upload upload = properties.getUpload();
+        this.threshold = upload.getSpoolThreshold().toBytes();
+        this.directory = upload.getSpoolDir();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог временных файлов " + directory, e);
+        }
+    }
+
+    /**
+     * Проверяет, нужно ли переносить загрузку такого размера на диск.
+     *
+     * @param size размер загрузки в байтах
+     * @return true если загрузка больше порога
+     */
+    public boolean shouldSpool(long size) {
+        return size > threshold;
+    }
+
+    /**
+     * Создает пустой временный файл.
+     *
+     * @param suffix расширение файла
+     * @return временный файл, удаляемый при закрытии
+     * @throws IOException если файл не удалось создать
+     */
+    public SpooledFile createFile(String suffix) throws IOException {
+        return new SpooledFile(createTempFile("upload-", suffix));
+    }
+
+    /**
+     * Создает пустой временный файл в каталоге временных файлов. Удаляет его вызывающий код.
+     *
+     * @param prefix начало имени файла
+     * @param suffix расширение файла
+     * @return путь созданного файла
+     * @throws IOException если файл не удалось создать
+     */
+    public Path createTempFile(String prefix, String suffix) throws IOException {
+        return Files.createTempFile(directory, prefix, suffix);
+    }
+
+    /**
+     * Временный файл загрузки или результата. Читается через отображение в память,
+     * пишется через файловый канал. Закрытие удаляет файл, повторное закрытие ничего не делает.
+     */
+    public static final class SpooledFile implements InputStreamSource, Closeable {
+        private final Path path;
+
+        private SpooledFile(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Возвращает путь файла.
+         *
+         * @return путь временного файла
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new MappedFileInputStream(path);
+        }
+
+        /**
+         * Открывает файл для записи с начала через файловый канал.
+         *
+         * @return буферизованный поток записи в файл
+         * @throws IOException если файл не удалось открыть
+         */
+        public OutputStream openOutputStream() throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new BufferedOutputStream(Channels.newOutputStream(channel), OUTPUT_BUFFER_SIZE);
+        }
+
+        /**
+         * Открывает файл для последовательного чтения через файловый канал.
+         * Открытый поток читает файл, даже если его потом переместят или удалят.
+         *
+         * @return поток чтения файла
+         * @throws IOException если файл не удалось открыть
+         */
+        public InputStream openInputStream() throws IOException {
+            return Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ));
+        }
+
+        @Override
+        public void close() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Не удалось удалить временный файл {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.domain.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.domain.model.MockData.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Скомпилированный шаблон URL мока с плейсхолдерами вида {@code ${name}}.
+ * URL разбирается один раз на чередующиеся литералы и имена плейсхолдеров,
+ * после чего подстановка выполняется за один проход прямо в получатель.
+ * Параметры, для которых в URL нет плейсхолдера, дописываются строкой запроса
+ * в порядке следования в документе. Одинаковые URL повторяются во многих моках,
+ * поэтому скомпилированные шаблоны кэшируются.
+ */
+public final class UrlTemplate {
+    /** Максимальное количество шаблонов в кэше */
+    private static final int CACHE_SIZE = 4096;
+
+    private static final String PLACEHOLDER_START = "${";
+    private static final char PLACEHOLDER_END = '}';
+
+    /** Кэш скомпилированных шаблонов по исходному URL */
+    private static final Cache<String, UrlTemplate> templates = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    /** Литералы между плейсхолдерами, на один больше, чем имен */
+    private final String[] literals;
+
+    /** Имена плейсхолдеров в порядке следования */
+    private final String[] names;
+
+    private UrlTemplate(String[] literals, String[] names) {
+        this.literals = literals;
+        this.names = names;
+    }
+
+    /**
+     * Возвращает скомпилированный шаблон для URL.
+     * URL без плейсхолдеров не кэшируются: для них разбор сводится к одному поиску.
+     *
+     * @param url исходный URL
+     * @return шаблон URL
+     */
+    public static UrlTemplate compile(String url) {
+        if (url.indexOf(PLACEHOLDER_START) < 0) {
+            return new UrlTemplate(new String[] {url}, new String[0]);
+        }
+        return templates.get(url, UrlTemplate::parse);
+    }
+
+    /**
+     * Разбирает URL на литералы и плейсхолдеры.
+     * Незакрытый плейсхолдер остается частью литерала.
+     */
+    private static UrlTemplate parse(String url) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int start = url.indexOf(PLACEHOLDER_START);
+        while (start >= 0) {
+            int end = url.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                break;
+            }
+            literals.add(url.substring(literalStart, start));
+            names.add(url.substring(start + PLACEHOLDER_START.length(), end));
+            literalStart = end + 1;
+            start = url.indexOf(PLACEHOLDER_START, literalStart);
+        }
+        literals.add(url.substring(literalStart));
+        return new UrlTemplate(literals.toArray(String[]::new), names.toArray(String[]::new));
+    }
+
+    /**
+     * Дописывает URL с подставленными параметрами.
+     * Плейсхолдер заменяется значением первого параметра с тем же именем, плейсхолдер
+     * без параметра остается как есть. Повторные параметры с именем плейсхолдера
+     * отбрасываются без ошибки. Параметры без плейсхолдера, в том числе повторяющиеся,
+     * дописываются в порядке документа через {@code ?} или {@code &}, если строка запроса уже есть.
+     *
+     * @param out получатель текста
+     * @param parameters параметры мока в порядке следования в документе
+     */
+    public void appendTo(StringBuilder out, List<Parameter> parameters) {
+        int start = out.length();
+        out.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = valueOf(names[i], parameters);
+            if (value != null) {
+                out.append(value);
+            } else {
+                out.append(PLACEHOLDER_START).append(names[i]).append(PLACEHOLDER_END);
+            }
+            out.append(literals[i + 1]);
+        }
+
+        boolean hasQuery = out.indexOf("?", start) >= 0;
+        for (Parameter parameter : parameters) {
+            if (!hasPlaceholder(parameter.name())) {
+                out.append(hasQuery ? '&' : '?').append(parameter.name()).append('=').append(parameter.value());
+                hasQuery = true;
+            }
+        }
+    }
+
+    private boolean hasPlaceholder(String name) {
+        for (String placeholder : names) {
+            if (placeholder.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String valueOf(String name, List<Parameter> parameters) {
+        for (Parameter parameter : parameters) {
+            if (parameter.name().equals(name)) {
+                return parameter.value();
+            }
+        }
+        return null;
+    }
+}
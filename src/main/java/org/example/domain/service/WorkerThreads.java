@@ -0,0 +1,34 @@
+package org.example.domain.service;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Фабрики потоков для внутренних пулов конвертации.
+ * При {@code spring.threads.virtual.enabled=true} на Java 21 пулы создают виртуальные
+ * потоки, иначе обычные. Размеры пулов и очередей от этого не меняются: они по-прежнему
+ * ограничивают число одновременно конвертируемых файлов и тест-кейсов.
+ */
+final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * Создает фабрику потоков с указанным префиксом имени.
+     *
+     * @param prefix префикс имени потоков
+     * @param environment окружение приложения
+     * @return фабрика виртуальных или обычных потоков
+     */
+    static ThreadFactory factory(String prefix, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.domain.service;
 
+import org.example.config.ConverterProperties;
 import org.example.domain.model.attributes.StepAttributes;
 import org.example.exception.XmlValidationException;
 import org.springframework.stereotype.Service;
@@ -8,17 +9,27 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.DocumentBuilder;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Сервис для парсинга и валидации XML документов.
  * Обеспечивает корректную загрузку и проверку структуры XML файлов тест-кейсов.
+ * Парсеры DOM берутся из пула и настроены на безопасную обработку:
+ * внешние DTD и сущности не загружаются, раскрытие сущностей ограничено.
  */
 @Service
 public class XmlParsingService {
+    private final DocumentBuilderPool documentBuilders;
+
+    /**
+     * Создает сервис с пулом парсеров по настройкам конвертера.
+     *
+     * @param properties настройки конвертера
+     */
+    public XmlParsingService(ConverterProperties properties) {
+        this.documentBuilders = new DocumentBuilderPool(properties.getXml().getParserPoolSize());
+    }
 
     /**
      * Парсит XML из входного потока и выполняет валидацию документа.
@@ -28,13 +39,29 @@ public class XmlParsingService {
      * @throws Exception при ошибках парсинга или валидации
      */
     public Document parseXml(InputStream inputStream) throws Exception {
-        Document doc = DocumentBuilderFactory.newInstance()
-            .newDocumentBuilder()
-            .parse(inputStream);
+        Document doc = parseDocument(inputStream);
         validateDocument(doc);
         return doc;
     }
 
+    /**
+     * Парсит XML из входного потока без валидации структуры.
+     * Используется конвертером, который проверяет тест-кейсы в том же проходе,
+     * в котором строит модели.
+     *
+     * @param inputStream поток с XML данными
+     * @return распарсенный XML документ
+     * @throws Exception при ошибках парсинга
+     */
+    public Document parseDocument(InputStream inputStream) throws Exception {
+        DocumentBuilder builder = documentBuilders.borrow();
+        try {
+            return builder.parse(inputStream);
+        } finally {
+            documentBuilders.release(builder);
+        }
+    }
+
     /**
      * Проверяет корректность структуры XML документа.
      * Проверяет наличие корневого элемента test и элементов test-case.
@@ -47,57 +74,33 @@ public class XmlParsingService {
         Element root = doc.getDocumentElement();
         
         // Проверка корневого элемента
-        if (!"test".equals(root.getNodeName())) {
-            throw new XmlValidationException("Некорректный XML: ожидается корневой элемент <test>, но найден <" + root.getNodeName() + ">");
-        }
-
-        // Проверка наличия test-case элементов
-        NodeList testCases = root.getElementsByTagName("test-case");
-        if (testCases.getLength() == 0) {
-            throw new XmlValidationException("XML не содержит тест-кейсов (<test-case>)");
-        }
+        TestCaseValidator.validateRoot(root.getNodeName());
 
         // Валидация каждого тест-кейса
-        List<String> errors = new ArrayList<>();
+        TestCaseValidator validator = new TestCaseValidator();
+        NodeList testCases = root.getElementsByTagName("test-case");
         for (int i = 0; i < testCases.getLength(); i++) {
             Element testCase = (Element) testCases.item(i);
-            validateTestCase(testCase, errors);
+            validator.validateTestCase(testCase.getAttribute("id"), hasSteps(testCase));
         }
 
-        if (!errors.isEmpty()) {
-            throw new XmlValidationException("Обнаружены ошибки в XML:\n" + String.join("\n", errors));
-        }
+        validator.throwIfInvalid();
     }
 
     /**
-     * Проверяет корректность отдельного тест-кейса.
-     * Проверяет наличие ID и шагов в тест-кейсе.
+     * Проверяет, содержит ли тест-кейс хотя бы один шаг.
      *
-     * @param testCase элемент тест-кейса для валидации
-     * @param errors список для накопления ошибок
+     * @param testCase элемент тест-кейса
+     * @return true если среди дочерних элементов есть шаг
      */
-    private void validateTestCase(Element testCase, List<String> errors) {
-        String id = testCase.getAttribute("id");
-        if (id.isEmpty()) {
-            errors.add("Test case без ID");
-        }
-
+    private boolean hasSteps(Element testCase) {
         NodeList children = testCase.getChildNodes();
-        boolean hasValidContent = false;
-        
         for (int i = 0; i < children.getLength(); i++) {
             Node node = children.item(i);
-            if (node.getNodeType() != Node.ELEMENT_NODE) continue;
-            
-            String nodeName = node.getNodeName();
-            if (StepAttributes.isStepNode(nodeName)) {
-                hasValidContent = true;
-                break;
+            if (node.getNodeType() == Node.ELEMENT_NODE && StepAttributes.isStepNode(node.getNodeName())) {
+                return true;
             }
         }
-
-        if (!hasValidContent) {
-            errors.add("Test case " + id + " не содержит шагов");
-        }
+        return false;
     }
 }
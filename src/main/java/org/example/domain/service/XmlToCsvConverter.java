@@ -1,10 +1,16 @@
 package org.example.domain.service;
 
+import org.example.domain.model.MockData;
 import org.example.domain.model.Step;
 import org.example.domain.model.TestCase;
+import org.example.domain.model.TextSlice;
 import org.example.domain.model.attributes.StepAttributes;
 import org.example.domain.model.attributes.ExpectedResultAttributes;
+import org.example.domain.service.ConversionMetrics.Stage;
+import org.example.domain.service.ConversionMetrics.StageTimings;
+import org.example.dto.ConversionMode;
 import org.example.dto.ConversionParams;
+import org.example.exception.XmlValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -16,19 +22,31 @@ import lombok.RequiredArgsConstructor;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.LongConsumer;
 import java.util.stream.*;
 
 /**
  * Сервис для конвертации XML файлов тест-кейсов в формат CSV.
  * Обеспечивает основную логику преобразования XML документов в CSV формат
  * с учетом специфической структуры тест-кейсов.
+ * Вместо CSV результат может записываться в NDJSON, формат выбирается
+ * параметром {@link ConversionParams#getFormat()}.
+ * Строки неизмененных тест-кейсов берутся из {@link TestCaseRowStore}, поэтому
+ * повторная конвертация файла форматирует только новые и измененные тест-кейсы.
  */
 @Service
 @RequiredArgsConstructor
 public class XmlToCsvConverter {
     private static final Logger logger = LoggerFactory.getLogger(XmlToCsvConverter.class);
+
+    /** Слушатель прогресса, который ничего не делает */
+    private static final LongConsumer NO_PROGRESS = processed -> { };
     
     private final XmlParsingService xmlParsingService;
+    private final ConversionWorkerPool workerPool;
+    private final CsvFormat csvFormat;
+    private final ConversionMetrics metrics;
+    private final TestCaseRowStore rowStore;
 
     /**
      * Конвертирует XML строку в CSV формат.
@@ -39,7 +57,7 @@ public class XmlToCsvConverter {
      * @throws Exception при ошибках конвертации
      */
     public byte[] convert(String xmlContent, ConversionParams params) throws Exception {
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(xmlContent.getBytes())) {
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8))) {
             return convert(inputStream, params);
         }
     }
@@ -53,73 +71,403 @@ public class XmlToCsvConverter {
      * @throws Exception при ошибках конвертации
      */
     public byte[] convert(InputStream inputStream, ConversionParams params) throws Exception {
-        try {
-            Document doc = xmlParsingService.parseXml(inputStream);
-            List<TestCase> testCases = parseListTestCases(doc, params);
-            return writeToCsvBytes(testCases);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        convert(inputStream, params, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Конвертирует XML из потока и записывает CSV напрямую в выходной поток.
+     * Сначала записывается UTF-8 BOM, затем заголовок и строки тест-кейсов.
+     * В потоковом режиме тест-кейсы проверяются и форматируются за один проход, строки уходят
+     * в выходной поток по мере чтения, начиная с первого корректного тест-кейса. Если ошибка
+     * найдена в корневом элементе или первом тест-кейсе, в поток ничего не пишется. Ошибки
+     * остальных тест-кейсов обнаруживаются после начала записи: запись строк прекращается,
+     * и после чтения документа выбрасывается {@link XmlValidationException} со всеми ошибками,
+     * а частичный результат отбрасывает вызывающий код. В режиме DOM документ проверяется
+     * целиком до записи.
+     * Режим конвертации выбирается параметром {@link ConversionParams#getMode()},
+     * формат результата параметром {@link ConversionParams#getFormat()}.
+     * При {@link ConversionParams#isParallel()} тест-кейсы форматируются в пуле потоков
+     * с сохранением порядка строк. Выходной поток не закрывается.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param outputStream поток для записи CSV
+     * @throws Exception при ошибках конвертации
+     */
+    public void convert(InputStream inputStream, ConversionParams params, OutputStream outputStream) throws Exception {
+        convert(inputStream, params, outputStream, NO_PROGRESS);
+    }
+
+    /**
+     * Конвертирует XML из потока в выходной поток, сообщая о прогрессе.
+     * Выходной поток не закрывается.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param outputStream поток для записи CSV
+     * @param progress получает число обработанных тест-кейсов после каждого тест-кейса
+     * @throws Exception при ошибках конвертации
+     * @see #convert(InputStream, ConversionParams, OutputStream)
+     */
+    public void convert(InputStream inputStream, ConversionParams params, OutputStream outputStream,
+                        LongConsumer progress) throws Exception {
+        convertRows(inputStream, params, outputStream, progress, true);
+    }
+
+    /**
+     * Записывает UTF-8 BOM и строку заголовка CSV. Выходной поток не закрывается.
+     *
+     * @param outputStream поток для записи CSV
+     * @throws IOException при ошибках записи
+     */
+    public void writeHeader(OutputStream outputStream) throws IOException {
+        writeHeader(outputStream, ConversionParams.builder().build());
+    }
+
+    /**
+     * Записывает начало файла в формате {@link ConversionParams#getFormat()}:
+     * для CSV это UTF-8 BOM и строка заголовка, у NDJSON заголовка нет.
+     * Выходной поток не закрывается.
+     *
+     * @param outputStream поток для записи результата
+     * @param params параметры конвертации
+     * @throws IOException при ошибках записи
+     */
+    public void writeHeader(OutputStream outputStream, ConversionParams params) throws IOException {
+        createOutput(params).writeHeader(outputStream);
+    }
+
+    /**
+     * Конвертирует XML из потока и записывает только строки тест-кейсов, без BOM и заголовка.
+     * Используется для объединения нескольких XML файлов в один CSV.
+     * Время этапов, размеры и ошибки конвертации публикуются в {@link ConversionMetrics}.
+     * Выходной поток не закрывается.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param outputStream поток для записи CSV
+     * @throws Exception при ошибках конвертации
+     */
+    public void convertRows(InputStream inputStream, ConversionParams params, OutputStream outputStream) throws Exception {
+        convertRows(inputStream, params, outputStream, NO_PROGRESS);
+    }
+
+    /**
+     * Конвертирует XML и записывает только строки тест-кейсов, сообщая о прогрессе.
+     * Выходной поток не закрывается.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param outputStream поток для записи CSV
+     * @param progress получает число обработанных тест-кейсов после каждого тест-кейса
+     * @throws Exception при ошибках конвертации
+     */
+    public void convertRows(InputStream inputStream, ConversionParams params, OutputStream outputStream,
+                            LongConsumer progress) throws Exception {
+        convertRows(inputStream, params, outputStream, progress, false);
+    }
+
+    /**
+     * Конвертирует XML, при необходимости записывая начало файла перед строками.
+     * Запись идет через {@link DeferredOutputStream}, который открывается после проверки
+     * первого тест-кейса в потоковом режиме и после проверки всего документа в режиме DOM.
+     */
+    private void convertRows(InputStream inputStream, ConversionParams params, OutputStream outputStream,
+                             LongConsumer progress, boolean withHeader) throws Exception {
+        long start = System.nanoTime();
+        StageTimings timings = new StageTimings(progress);
+        CountingInputStream countingInput = new CountingInputStream(inputStream);
+        try (DeferredOutputStream deferred = new DeferredOutputStream(outputStream)) {
+            if (withHeader) {
+                writeHeader(deferred, params);
+            }
+            CountingOutputStream countingOutput = new CountingOutputStream(deferred);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(countingOutput, StandardCharsets.UTF_8));
+            try (TestCaseSink sink = createSink(writer, params)) {
+                if (params.getMode() == ConversionMode.DOM) {
+                    convertDom(countingInput, params, sink, deferred, timings);
+                } else {
+                    convertStreaming(countingInput, params, sink, deferred, timings);
+                }
+                long finishStart = System.nanoTime();
+                sink.finish();
+                timings.add(Stage.WRITE, System.nanoTime() - finishStart);
+            }
+            writer.flush();
+            metrics.recordConversion(params, timings, countingInput.getCount(), countingOutput.getCount(),
+                System.nanoTime() - start);
+            if (rowStore.isEnabled()) {
+                logger.info("Строк CSV переиспользовано: {}, пересобрано: {}",
+                    timings.getReusedRows(), timings.getTestCases() - timings.getReusedRows());
+            }
         } catch (Exception e) {
+            metrics.recordError(params, e);
             logger.error("Ошибка при конвертации XML", e);
             throw e;
         }
     }
 
+    /**
+     * Создает получателя тест-кейсов: последовательного или параллельного.
+     *
+     * @param writer получатель записей
+     * @param params параметры конвертации
+     * @return получатель тест-кейсов
+     */
+    private TestCaseSink createSink(Writer writer, ConversionParams params) {
+        OutputWriter output = createOutput(params);
+        if (params.isParallel()) {
+            return new OrderedParallelSink(workerPool, writer, output, rowStore);
+        }
+        return new SequentialSink(writer, output, rowStore);
+    }
+
+    /**
+     * Создает запись результата в формате из параметров конвертации.
+     * Колонки метаданных вычисляются здесь один раз и общие для всех записей конвертации.
+     *
+     * @param params параметры конвертации
+     * @return запись результата
+     */
+    private OutputWriter createOutput(ConversionParams params) {
+        MetadataColumns metadata = MetadataColumns.resolve(params, csvFormat);
+        return switch (params.getFormat()) {
+            case CSV -> new CsvOutputWriter(csvFormat, metadata);
+            case NDJSON -> new NdjsonOutputWriter(metadata);
+        };
+    }
+
+    /**
+     * Конвертирует документ через полное DOM дерево.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param sink получатель тест-кейсов
+     * @param output поток результата, открывается после проверки документа
+     * @param timings накопитель времени этапов
+     * @throws Exception при ошибках парсинга или записи
+     */
+    private void convertDom(InputStream inputStream, ConversionParams params, TestCaseSink sink,
+                            DeferredOutputStream output, StageTimings timings) throws Exception {
+        long mark = System.nanoTime();
+        Document doc = xmlParsingService.parseDocument(inputStream);
+        long parsed = System.nanoTime();
+        timings.add(Stage.PARSE, parsed - mark);
+
+        TestCaseValidator validator = new TestCaseValidator();
+        List<DomRow> rows = parseRows(doc, params, validator);
+        long built = System.nanoTime();
+        timings.add(Stage.BUILD, built - parsed);
+
+        validator.throwIfInvalid();
+        output.open();
+        mark = System.nanoTime();
+        timings.add(Stage.VALIDATE, mark - built);
+
+        for (DomRow row : rows) {
+            if (row.renderedRow() != null) {
+                sink.acceptRow(row.renderedRow());
+                timings.countReusedRow();
+            } else {
+                sink.accept(row.testCase(), row.rowKey());
+            }
+            timings.countTestCase();
+        }
+        timings.add(Stage.WRITE, System.nanoTime() - mark);
+    }
+
+    /**
+     * Конвертирует документ потоково: каждый тест-кейс читается, записывается в CSV
+     * и сразу освобождается, поэтому DOM всего документа не строится.
+     * Поток результата открывается перед записью первого корректного тест-кейса.
+     * После первой ошибки валидации строки не пишутся, документ дочитывается только
+     * для сбора всех ошибок в {@link TestCaseValidator#throwIfInvalid()}.
+     *
+     * @param inputStream поток с XML данными
+     * @param params параметры конвертации
+     * @param sink получатель тест-кейсов
+     * @param output поток результата
+     * @param timings накопитель времени этапов
+     * @throws Exception при ошибках парсинга, валидации или записи
+     */
+    private void convertStreaming(InputStream inputStream, ConversionParams params, TestCaseSink sink,
+                                  DeferredOutputStream output, StageTimings timings) throws Exception {
+        TestCaseValidator validator = new TestCaseValidator();
+        TestCaseFingerprint fingerprint = rowStore.isEnabled() ? rowStore.newFingerprint(params) : null;
+        long mark = System.nanoTime();
+        try (StaxTestCaseReader reader = new StaxTestCaseReader(inputStream, validator, fingerprint)) {
+            TestCase testCase;
+            while ((testCase = reader.next()) != null) {
+                long read = System.nanoTime();
+                timings.add(Stage.PARSE, read - mark);
+                timings.countTestCase();
+                if (validator.hasErrors()) {
+                    mark = read;
+                    continue;
+                }
+                output.open();
+                String rowKey = reader.rowKey();
+                String renderedRow = rowKey != null ? rowStore.get(rowKey) : null;
+                if (renderedRow != null) {
+                    sink.acceptRow(renderedRow);
+                    timings.countReusedRow();
+                } else {
+                    sink.accept(testCase, storableRowKey(testCase, rowKey));
+                }
+                mark = System.nanoTime();
+                timings.add(Stage.WRITE, mark - read);
+            }
+        }
+        long parsed = System.nanoTime();
+        timings.add(Stage.PARSE, parsed - mark);
+
+        validator.throwIfInvalid();
+        timings.add(Stage.VALIDATE, System.nanoTime() - parsed);
+    }
+
     /**
      * Парсит список тест-кейсов из XML документа.
+     * Валидация выполняется в том же проходе: ошибки всех тест-кейсов
+     * накапливаются и выбрасываются одним исключением до записи CSV.
      *
      * @param doc XML документ
-     * @param params параметры конвертации
      * @return список тест-кейсов
+     * @throws XmlValidationException если документ не соответствует ожидаемой структуре
+     */
+    List<TestCase> parseListTestCases(Document doc) {
+        TestCaseValidator validator = new TestCaseValidator();
+        List<TestCase> testCases = parseListTestCases(doc, validator);
+        validator.throwIfInvalid();
+        return testCases;
+    }
+
+    /**
+     * Парсит список тест-кейсов из XML документа, накапливая ошибки в валидаторе.
+     * Итоговую проверку {@link TestCaseValidator#throwIfInvalid()} выполняет вызывающий код.
+     *
+     * @param doc XML документ
+     * @param validator накопитель ошибок валидации
+     * @return список тест-кейсов
+     * @throws XmlValidationException если корневой элемент документа не &lt;test&gt;
      */
-    private List<TestCase> parseListTestCases(Document doc, ConversionParams params) {
+    private List<TestCase> parseListTestCases(Document doc, TestCaseValidator validator) {
+        TestCaseValidator.validateRoot(doc.getDocumentElement().getNodeName());
+
         List<TestCase> testCases = new ArrayList<>();
         NodeList testCaseNodes = doc.getElementsByTagName("test-case");
         
         for (int i = 0; i < testCaseNodes.getLength(); i++) {
             Element testCaseElement = (Element) testCaseNodes.item(i);
-            testCases.add(parseTestCase(testCaseElement, params));
+            TestCase testCase = parseTestCase(testCaseElement);
+            validator.validateTestCase(testCase.getName(), !testCase.getSteps().isEmpty());
+            testCases.add(testCase);
         }
         
         return testCases;
     }
 
+    /**
+     * Готовит строки DOM документа к записи: для неизмененных тест-кейсов берет готовые
+     * строки из хранилища, остальные тест-кейсы парсит. Ошибки накапливаются в валидаторе.
+     *
+     * @param doc XML документ
+     * @param params параметры конвертации
+     * @param validator накопитель ошибок валидации
+     * @return строки в порядке следования тест-кейсов в документе
+     * @throws XmlValidationException если корневой элемент документа не &lt;test&gt;
+     */
+    private List<DomRow> parseRows(Document doc, ConversionParams params, TestCaseValidator validator) {
+        if (!rowStore.isEnabled()) {
+            return parseListTestCases(doc, validator).stream()
+                .map(testCase -> new DomRow(testCase, null, null))
+                .toList();
+        }
+        TestCaseValidator.validateRoot(doc.getDocumentElement().getNodeName());
+
+        TestCaseFingerprint fingerprint = rowStore.newFingerprint(params);
+        List<DomRow> rows = new ArrayList<>();
+        NodeList testCaseNodes = doc.getElementsByTagName("test-case");
+
+        for (int i = 0; i < testCaseNodes.getLength(); i++) {
+            Element testCaseElement = (Element) testCaseNodes.item(i);
+            String id = testCaseElement.getAttribute("id");
+            fingerprint.element(testCaseElement);
+            String rowKey = fingerprint.finish(id);
+            String renderedRow = rowStore.get(rowKey);
+            if (renderedRow != null) {
+                // В хранилище попадают только строки тест-кейсов, прошедших проверку
+                validator.validateTestCase(id, true);
+                rows.add(new DomRow(null, null, renderedRow));
+                continue;
+            }
+            TestCase testCase = parseTestCase(testCaseElement);
+            validator.validateTestCase(testCase.getName(), !testCase.getSteps().isEmpty());
+            rows.add(new DomRow(testCase, storableRowKey(testCase, rowKey), null));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Возвращает ключ, под которым строку тест-кейса можно сохранить в хранилище.
+     * Строки тест-кейсов с ошибками не сохраняются, поэтому найденная в хранилище
+     * строка всегда принадлежит корректному тест-кейсу.
+     *
+     * @param testCase тест-кейс
+     * @param rowKey ключ строки или null
+     * @return ключ строки или null, если строку сохранять нельзя
+     */
+    private static String storableRowKey(TestCase testCase, String rowKey) {
+        if (rowKey == null || testCase.getName().isEmpty() || testCase.getSteps().isEmpty()) {
+            return null;
+        }
+        return rowKey;
+    }
+
     /**
      * Парсит отдельный тест-кейс из XML элемента.
      *
      * @param testCaseElement XML элемент тест-кейса
-     * @param params параметры конвертации
      * @return объект тест-кейса
      */
-    private TestCase parseTestCase(Element testCaseElement, ConversionParams params) {
+    private TestCase parseTestCase(Element testCaseElement) {
         String name = testCaseElement.getAttribute("id");
-        String precondition = processMockData(testCaseElement);
+        List<MockData> mockData = parseMockData(testCaseElement);
         List<Step> steps = parseSteps(testCaseElement);
 
+        return buildTestCase(name, mockData, steps);
+    }
+
+    /**
+     * Собирает тест-кейс из разобранных данных. Общий для DOM и потокового режимов.
+     * Метаданные из параметров конвертации в тест-кейс не копируются,
+     * их пишет {@link MetadataColumns}, общий для всех строк.
+     *
+     * @param name имя тест-кейса
+     * @param mockData моки тест-кейса
+     * @param steps шаги тест-кейса
+     * @return объект тест-кейса
+     */
+    static TestCase buildTestCase(String name, List<MockData> mockData, List<Step> steps) {
         return TestCase.builder()
             .name(name)
-            .precondition(precondition)
+            .mockData(mockData)
             .steps(steps)
-            .tag(params.getTag())
-            .link(params.getLink())
-            .parameter(params.getParameter())
-            .suite(params.getSuite())
-            .component(params.getComponent())
-            .story(params.getStory())
-            .feature(params.getFeature())
-            .epic(params.getEpic())
-            .fileName(params.getFileName())
             .build();
     }
 
     /**
      * Парсит шаги тест-кейса.
+     * Текст извлекается только из узлов шагов и результатов и не копируется:
+     * шаги ссылаются на строку узла через {@link TextSlice}.
      *
      * @param testCaseElement XML элемент тест-кейса
      * @return список шагов тест-кейса
      */
     private List<Step> parseSteps(Element testCaseElement) {
-        List<Step> steps = new ArrayList<>();
-        Step.StepBuilder currentStep = null;
-        List<String> currentExpectedResults = new ArrayList<>();
+        StepListBuilder steps = new StepListBuilder();
         
         NodeList nodes = testCaseElement.getChildNodes();
         for (int i = 0; i < nodes.getLength(); i++) {
@@ -127,180 +475,79 @@ public class XmlToCsvConverter {
             if (node.getNodeType() != Node.ELEMENT_NODE) continue;
             
             String nodeName = node.getNodeName();
-            String text = node.getTextContent().trim();
-            Element elem = (Element) node;
-
             if (StepAttributes.isStepNode(nodeName)) {
-                // Если есть предыдущий шаг, завершаем его
-                if (currentStep != null) {
-                    currentStep.expectedResults(currentExpectedResults);
-                    steps.add(currentStep.build());
-                }
-                // Начинаем новый шаг
-                StepAttributes attributes = StepAttributes.fromNodeName(nodeName, text);
-                currentStep = Step.builder().attributes(attributes);
-                if (attributes.hasSubSteps()) {
-                    currentStep.subSteps(List.of(attributes.getSubSteps()));
-                }
-                currentExpectedResults = new ArrayList<>();
-            } else if (ExpectedResultAttributes.isResultNode(nodeName) && currentStep != null) {
-                // Добавляем новые ожидаемые результаты к текущему шагу
-                ExpectedResultAttributes resultAttributes = ExpectedResultAttributes.fromElement(elem);
-                currentExpectedResults.addAll(resultAttributes.toExpectedResults());
+                steps.addStep(nodeName, TextSlice.of(node.getTextContent()).trim());
+            } else if (ExpectedResultAttributes.isResultNode(nodeName) && steps.hasCurrentStep()) {
+                steps.addResult(ExpectedResultAttributes.fromElement((Element) node));
             }
         }
-        
-        // Завершаем последний шаг, если он есть
-        if (currentStep != null) {
-            currentStep.expectedResults(currentExpectedResults);
-            steps.add(currentStep.build());
-        }
 
-        return steps;
+        return steps.build();
     }
 
-
-
     /**
-     * Обрабатывает данные моков из тест-кейса.
+     * Парсит данные моков из тест-кейса.
      *
      * @param testCase XML элемент тест-кейса
-     * @return строка с форматированными данными моков
+     * @return список моков в порядке следования в документе
      */
-    private String processMockData(Element testCase) {
-        return Optional.of(testCase)
-            .map(tc -> tc.getElementsByTagName("mockData"))
-            .map(mockDataList -> IntStream.range(0, mockDataList.getLength())
-                .mapToObj(i -> processSingleMock((Element) mockDataList.item(i), i + 1))
-                .collect(Collectors.joining("\n")))
-            .orElse("");
+    private List<MockData> parseMockData(Element testCase) {
+        NodeList mockDataList = testCase.getElementsByTagName("mockData");
+        return IntStream.range(0, mockDataList.getLength())
+            .mapToObj(i -> parseSingleMock((Element) mockDataList.item(i)))
+            .toList();
     }
 
     /**
-     * Обрабатывает отдельный мок из данных тест-кейса.
+     * Парсит отдельный мок из данных тест-кейса.
      *
      * @param mockData XML элемент с данными мока
-     * @param index порядковый номер мока
-     * @return строка с форматированными данными мока
+     * @return модель мока
      */
-    private String processSingleMock(Element mockData, int index) {
-        Element query = (Element) mockData.getElementsByTagName("query").item(0);
-        Element response = (Element) mockData.getElementsByTagName("response").item(0);
+    private MockData parseSingleMock(Element mockData) {
+        Optional<Element> query = firstElement(mockData, "query");
+        Optional<Element> response = firstElement(mockData, "response");
         
-        // Собираем все параметры в Map
-        Map<String, String> parameters = Optional.ofNullable(mockData.getElementsByTagName("parameters").item(0))
-            .map(Element.class::cast)
-            .map(params -> StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(
-                    new NodeListIterator(params.getChildNodes()),
-                    Spliterator.ORDERED
-                ),
-                false
-            )
-            .filter(node -> node.getNodeType() == Node.ELEMENT_NODE)
-            .map(Element.class::cast)
-            .collect(Collectors.toMap(
-                Element::getNodeName,
-                elem -> elem.getTextContent().trim()
-            )))
-            .orElse(new HashMap<>());
-
-        String method = query.getAttribute("method").toUpperCase();
-        String url = query.getTextContent().trim();
-        String statusCode = response.getAttribute("status");
-        String responseBody = JsonFormatter.formatJson(response.getTextContent().trim());
-
-        // Подставляем параметры в URL 
-        String processedUrl = url;        
-        for (Map.Entry<String, String> entry : parameters.entrySet()) {
-            String paramPlaceholder = "${" + entry.getKey() + "}";
-            if (url.contains(paramPlaceholder)) {
-                // Если параметр используется в URL как placeholder
-                processedUrl = processedUrl.replace(paramPlaceholder, entry.getValue());
-            } else {
-                // Если параметр не используется в URL, добавляем его как query parameter
-                String separator = processedUrl.contains("?") ? "&" : "?";
-                processedUrl = processedUrl + separator + entry.getKey() + "=" + entry.getValue();
+        // Собираем все параметры в порядке следования, повторяющиеся имена сохраняются
+        List<MockData.Parameter> parameters = new ArrayList<>();
+        firstElement(mockData, "parameters").ifPresent(params -> {
+            NodeList nodes = params.getChildNodes();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Node node = nodes.item(i);
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    parameters.add(new MockData.Parameter(node.getNodeName(), node.getTextContent().trim()));
+                }
             }
-        }
+        });
 
-        return String.format("%d. **%s** %s\n**Статус:** %s \n**Ответ:** \n`%s`\n",
-            index,
-            method,
-            processedUrl,
-            statusCode,
-            responseBody
-        );
+        return MockData.builder()
+            .method(query.map(q -> q.getAttribute("method")).orElse(""))
+            .url(query.map(q -> q.getTextContent().trim()).orElse(""))
+            .status(response.map(r -> r.getAttribute("status")).orElse(""))
+            .responseBody(response.map(r -> r.getTextContent().trim()).orElse(""))
+            .parameters(parameters)
+            .build();
     }
 
     /**
-     * Записывает тест-кейсы в CSV формат.
+     * Находит первый элемент с указанным именем среди потомков.
      *
-     * @param testCases список тест-кейсов
-     * @return массив байт, представляющий CSV файл
-     * @throws IOException при ошибках записи
+     * @param parent родительский элемент
+     * @param tagName имя искомого элемента
+     * @return первый найденный элемент
      */
-    private byte[] writeToCsvBytes(List<TestCase> testCases) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        out.write(0xEF);
-        out.write(0xBB);
-        out.write(0xBF);
-        
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
-            writer.write("name;full_name;description;precondition;expected_result;scenario;tag;link;parameter;Lead;Owner;Suite;Component;Story;Feature;Epic");
-            writer.newLine();
-
-            for (TestCase testCase : testCases) {
-                writer.write(formatCsvRow(testCase.toCsvRow()));
-                writer.newLine();
-            }
-            writer.flush();
-        }
-        return out.toByteArray();
+    private static Optional<Element> firstElement(Element parent, String tagName) {
+        return Optional.ofNullable(parent.getElementsByTagName(tagName).item(0))
+            .map(Element.class::cast);
     }
 
     /**
-     * Форматирует массив строк в строку CSV формата.
+     * Строка DOM документа: тест-кейс для записи или готовая строка из хранилища.
      *
-     * @param row массив значений для строки CSV
-     * @return форматированная строка CSV
-     */
-    private String formatCsvRow(String[] row) {
-        return Arrays.stream(row)
-            .map(value -> {
-                if (value == null) return "";
-                if (value.contains(";") || value.contains("\n") || value.contains("\"")) {
-                    String processed = value.replace("\"", "\"\"");
-                    return "\"" + processed + "\"";
-                }
-                return value;
-            })
-            .collect(Collectors.joining(";"));
-    }
-
-    /**
-     * Итератор для удобной работы со списком узлов XML.
+     * @param testCase тест-кейс или null для готовой строки
+     * @param rowKey ключ для сохранения строки или null
+     * @param renderedRow готовая строка CSV или null
      */
-    private static class NodeListIterator implements Iterator<Node> {
-        private final NodeList nodeList;
-        private int index;
-        
-        public NodeListIterator(NodeList nodeList) {
-            this.nodeList = nodeList;
-            this.index = 0;
-        }
-        
-        @Override
-        public boolean hasNext() {
-            return index < nodeList.getLength();
-        }
-        
-        @Override
-        public Node next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
-            }
-            return nodeList.item(index++);
-        }
+    private record DomRow(TestCase testCase, String rowKey, String renderedRow) {
     }
-}
\ No newline at end of file
+}
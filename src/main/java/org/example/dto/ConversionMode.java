@@ -0,0 +1,19 @@
+package org.example.dto;
+
+/**
+ * Режим работы движка конвертации XML в CSV.
+ * Режим влияет только на расход памяти и скорость, результат конвертации одинаков.
+ * Документы с объявлением DOCTYPE отклоняются в обоих режимах.
+ */
+public enum ConversionMode {
+    /**
+     * Потоковое чтение через StAX: тест-кейсы читаются и записываются по одному,
+     * потребление памяти ограничено размером самого большого тест-кейса.
+     */
+    STREAMING,
+
+    /**
+     * Построение полного DOM документа. Оставлен как резервный режим.
+     */
+    DOM
+}
@@ -12,7 +12,7 @@ import lombok.Data;
  * @since 1.0
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ConversionParams {
     /** Тег для маркировки теста */
     @Builder.Default private String tag = "";
@@ -46,4 +46,13 @@ public class ConversionParams {
     
     /** Имя исходного файла */
     private String fileName;
+
+    /** Режим конвертации */
+    @Builder.Default private ConversionMode mode = ConversionMode.STREAMING;
+
+    /** Формат результата */
+    @Builder.Default private OutputFormat format = OutputFormat.CSV;
+
+    /** Форматировать тест-кейсы параллельно в пуле потоков */
+    @Builder.Default private boolean parallel = false;
 }
\ No newline at end of file
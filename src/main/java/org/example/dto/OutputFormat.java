@@ -0,0 +1,46 @@
+package org.example.dto;
+
+/**
+ * Формат результата конвертации.
+ */
+public enum OutputFormat {
+    /**
+     * CSV в формате импорта TestOps: UTF-8 BOM, заголовок и строка на каждый тест-кейс.
+     */
+    CSV("csv", "application/octet-stream"),
+
+    /**
+     * NDJSON: по одному JSON объекту на строку для каждого тест-кейса, без заголовка.
+     * Шаги и ожидаемые результаты передаются массивами, а не текстом сценария.
+     */
+    NDJSON("ndjson", "application/x-ndjson");
+
+    /** Расширение файла результата без точки */
+    private final String extension;
+
+    /** Тип содержимого ответа */
+    private final String mediaType;
+
+    OutputFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Возвращает расширение файла результата.
+     *
+     * @return расширение без точки
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Возвращает тип содержимого ответа с результатом.
+     *
+     * @return тип содержимого
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+}
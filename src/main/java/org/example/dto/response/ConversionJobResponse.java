@@ -0,0 +1,64 @@
+package org.example.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import org.example.domain.service.ConversionJob;
+import org.example.domain.service.ConversionJobStatus;
+
+import java.time.Instant;
+
+/**
+ * DTO класс с состоянием задачи фоновой конвертации.
+ * Возвращается эндпоинтами /api/convert/jobs.
+ */
+@Data
+@Builder
+public class ConversionJobResponse {
+    /** Идентификатор задачи */
+    private String id;
+
+    /** Состояние задачи */
+    private ConversionJobStatus status;
+
+    /** Имя исходного XML файла */
+    private String fileName;
+
+    /** Сколько тест-кейсов обработано на текущий момент */
+    private long testCasesProcessed;
+
+    /** Сообщение об ошибке, если задача завершилась неудачно */
+    private String error;
+
+    /** Время создания задачи */
+    private Instant createdAt;
+
+    /** Время начала конвертации */
+    private Instant startedAt;
+
+    /** Время завершения конвертации */
+    private Instant finishedAt;
+
+    /** Адрес для скачивания результата, заполняется у завершенной задачи */
+    private String resultUrl;
+
+    /**
+     * Создает DTO по задаче.
+     *
+     * @param job задача конвертации
+     * @return состояние задачи
+     */
+    public static ConversionJobResponse from(ConversionJob job) {
+        return ConversionJobResponse.builder()
+            .id(job.getId())
+            .status(job.getStatus())
+            .fileName(job.getFileName())
+            .testCasesProcessed(job.getTestCasesProcessed())
+            .error(job.getError())
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .resultUrl(job.getStatus() == ConversionJobStatus.COMPLETED
+                ? "/api/convert/jobs/" + job.getId() + "/result" : null)
+            .build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, выбрасываемое, если для конвертации не хватило бюджета памяти
+ * за время ожидания. Клиенту следует повторить запрос через указанное время.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке
+     * @param retryAfter через сколько клиенту стоит повторить запрос
+     */
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Возвращает рекомендуемую задержку перед повтором запроса.
+     *
+     * @return задержка перед повтором
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -59,4 +61,62 @@ public class GlobalExceptionHandler {
         errors.put("error", ex.getMessage());
         return errors;
     }
+
+    /**
+     * Обрабатывает обращение к несуществующей задаче конвертации.
+     *
+     * @param ex исключение отсутствующей задачи
+     * @return карта с описанием ошибки
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(JobNotFoundException.class)
+    public Map<String, String> handleJobNotFoundException(JobNotFoundException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return errors;
+    }
+
+    /**
+     * Обрабатывает запрос к задаче конвертации в неподходящем состоянии.
+     *
+     * @param ex исключение состояния задачи
+     * @return карта с описанием ошибки
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(JobStateException.class)
+    public Map<String, String> handleJobStateException(JobStateException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return errors;
+    }
+
+    /**
+     * Обрабатывает отказ в постановке задачи при заполненной очереди.
+     *
+     * @param ex исключение переполнения очереди
+     * @return карта с описанием ошибки
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(JobRejectedException.class)
+    public Map<String, String> handleJobRejectedException(JobRejectedException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return errors;
+    }
+
+    /**
+     * Обрабатывает отказ в конвертации при нехватке бюджета памяти.
+     * Ответ содержит заголовок Retry-After в секундах.
+     *
+     * @param ex исключение допуска конвертации
+     * @return ответ 429 с описанием ошибки
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleAdmissionRejectedException(AdmissionRejectedException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errors);
+    }
 }
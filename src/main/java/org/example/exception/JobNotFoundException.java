@@ -0,0 +1,17 @@
+package org.example.exception;
+
+/**
+ * Исключение, выбрасываемое, если задача конвертации не найдена.
+ * Используется, когда задача с указанным идентификатором не существует или уже удалена по истечении срока хранения.
+ */
+public class JobNotFoundException extends RuntimeException {
+    
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке
+     */
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
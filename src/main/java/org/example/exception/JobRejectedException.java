@@ -0,0 +1,17 @@
+package org.example.exception;
+
+/**
+ * Исключение, выбрасываемое, если очередь фоновых задач конвертации заполнена.
+ * Клиенту следует повторить запрос позже.
+ */
+public class JobRejectedException extends RuntimeException {
+    
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке
+     */
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
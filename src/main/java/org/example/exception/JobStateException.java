@@ -0,0 +1,17 @@
+package org.example.exception;
+
+/**
+ * Исключение, выбрасываемое, если задача конвертации в неподходящем состоянии.
+ * Используется, например, при запросе результата задачи, которая еще не завершена.
+ */
+public class JobStateException extends RuntimeException {
+    
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message сообщение об ошибке
+     */
+    public JobStateException(String message) {
+        super(message);
+    }
+}